@@ -1,51 +1,217 @@
 package com.projectmanager.repository;
 
 import com.projectmanager.model.Project;
+import com.projectmanager.model.ProjectStatus;
+import com.projectmanager.service.LogService;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Repositório simples em memória para Project.
- * Implementação singleton — substitua por implementação persistente (DB) quando desejar.
+ * Implementação singleton, em memória com persistência opcional via WAL.
+ * Mantém um índice gerente -> projetos, atualizado em save/delete.
+ * Leituras não bloqueiam; escritas travam apenas o id alterado (ver EntityStore).
+ * Com projectmanager.data.dir definido, cada escrita é registrada num WAL e só
+ * retorna depois de estar em disco (ver WriteAheadLog).
  */
 public class ProjectRepository {
-    private static ProjectRepository instance;
-    private final List<Project> projects = new ArrayList<>();
+    private final EntityStore<Project> projects = new EntityStore<>();
+    // índice secundário: gerenteId -> ids dos projetos
+    private final EntityStore.Index projectsByManager = new EntityStore.Index();
 
-    private ProjectRepository() {}
+    private final WriteAheadLog wal = WriteAheadLog.open("projects");
 
-    public static synchronized ProjectRepository getInstance() {
-        if (instance == null) instance = new ProjectRepository();
-        return instance;
+    private ProjectRepository() {
+        // reconstrói o estado a partir do WAL (no-op se a persistência estiver desligada)
+        wal.replay(new WriteAheadLog.Replayer<Project>() {
+            @Override
+            public void onSave(String id, Project entity) {
+                applySave(entity);
+            }
+
+            @Override
+            public void onDelete(String id) {
+                applyDelete(id);
+            }
+        });
+    }
+
+    private static class Holder {
+        static final ProjectRepository INSTANCE = new ProjectRepository();
+    }
+
+    public static ProjectRepository getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public void save(Project project) {
+        long position;
+        ReentrantLock lock = projects.lockFor(project.getId());
+        lock.lock();
+        try {
+            // grava no WAL antes de alterar a memória
+            position = wal.appendSave(project.getId(), project);
+            // substituir se já existir (mantém a posição original na ordem)
+            applySave(project);
+        } finally {
+            lock.unlock();
+        }
+        wal.awaitDurable(position);
+    }
+
+    /**
+     * Salva o lote de forma atômica: as faixas de todos os ids são travadas uma única vez
+     * e o lote entra no WAL como um só registro (na recuperação vale tudo ou nada).
+     * Leitores sem lock podem ver o lote pela metade enquanto ele é aplicado.
+     * Depois de durável, o lote é auditado numa única chamada (LogService.logAll, uma
+     * entrada por id com a ação e os detalhes dados).
+     */
+    public void saveAll(Collection<Project> batch, String userId, String action, String details) {
+        if (batch.isEmpty()) return;
+        List<String> ids = new ArrayList<>(batch.size());
+        for (Project project : batch) ids.add(project.getId());
+        long position;
+        List<ReentrantLock> held = projects.lockAll(ids);
+        try {
+            // serializa tudo antes de aplicar: uma falha aqui não deixa nada aplicado
+            WriteAheadLog.Batch record = wal.newBatch();
+            for (Project project : batch) record.save(project.getId(), project);
+            position = wal.appendBatch(record);
+            for (Project project : batch) applySave(project);
+        } finally {
+            projects.unlockAll(held);
+        }
+        wal.awaitDurable(position);
+        LogService.getInstance().logAll(userId, action, ids, details);
+    }
+
+    public Optional<Project> findById(String id) {
+        return Optional.ofNullable(projects.get(id));
+    }
+
+    /** Busca vários ids de uma vez, na ordem pedida; ids inexistentes ficam de fora. */
+    public List<Project> findAllById(Collection<String> ids) {
+        List<Project> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Project value = projects.get(id);
+            if (value != null) result.add(value);
+        }
+        return result;
     }
 
-    public synchronized void save(Project project) {
-        // substituir se já existir
-        this.projects.removeIf(p -> p.getId().equals(project.getId()));
-        this.projects.add(project);
+    public List<Project> findAll() {
+        return projects.values();
     }
 
-    public synchronized Optional<Project> findById(String id) {
-        return projects.stream().filter(p -> p.getId().equals(id)).findFirst();
+    public int count() {
+        return projects.size();
     }
 
-    public synchronized List<Project> findAll() {
-        return new ArrayList<>(projects);
+    /** Percorre sem copiar a tabela (ordem de inserção, fracamente consistente). */
+    public Stream<Project> stream() {
+        return projects.stream();
     }
 
-    public synchronized void delete(String id) {
-        projects.removeIf(p -> p.getId().equals(id));
+    public void forEach(Consumer<? super Project> action) {
+        projects.stream().forEach(action);
     }
 
-    public synchronized List<Project> findByManagerId(String managerId) {
-        List<Project> result = new ArrayList<>();
-        for (Project p : projects) {
-            if (p.getGerenteId() != null && p.getGerenteId().equals(managerId)) {
-                result.add(p);
+    public List<Project> findPage(int offset, int limit) {
+        return projects.page(offset, limit);
+    }
+
+    /**
+     * Grava um snapshot compacto do repositório e descarta o WAL que ele cobre,
+     * bloqueando as escritas só durante a troca de geração do WAL (no-op se a
+     * persistência estiver desligada).
+     */
+    public void checkpoint() {
+        wal.checkpoint(projects::withAllLocked, sink -> projects.forEachLocked(sink));
+    }
+
+    /** Notificado a cada save/delete; recebe de imediato as entidades já existentes. */
+    public void addListener(RepositoryListener<Project> listener) {
+        projects.addListener(listener);
+    }
+
+    /**
+     * Remove os ids de forma atômica (um único lock e um único registro de WAL para o
+     * lote) e devolve quantos existiam. Os removidos são auditados como em saveAll.
+     */
+    public int deleteAll(Collection<String> ids, String userId, String action, String details) {
+        if (ids.isEmpty()) return 0;
+        long position;
+        List<String> removed = new ArrayList<>();
+        List<ReentrantLock> held = projects.lockAll(ids);
+        try {
+            WriteAheadLog.Batch record = wal.newBatch();
+            for (String id : ids) {
+                if (projects.get(id) != null) record.delete(id);
+            }
+            position = wal.appendBatch(record);
+            for (String id : ids) {
+                if (applyDelete(id) != null) removed.add(id);
             }
+        } finally {
+            projects.unlockAll(held);
+        }
+        wal.awaitDurable(position);
+        LogService.getInstance().logAll(userId, action, removed, details);
+        return removed.size();
+    }
+
+    public void delete(String id) {
+        long position;
+        ReentrantLock lock = projects.lockFor(id);
+        lock.lock();
+        try {
+            if (projects.get(id) == null) return;
+            position = wal.appendDelete(id);
+            applyDelete(id);
+        } finally {
+            lock.unlock();
+        }
+        wal.awaitDurable(position);
+    }
+
+    public List<Project> findByManagerId(String managerId) {
+        return projectsByManager.resolve(managerId, projects::get);
+    }
+
+    /**
+     * Resumo para o painel do gerente: quantidade de projetos por status.
+     * Percorre apenas os projetos do gerente, sem montar listas intermediárias.
+     */
+    public Map<ProjectStatus, Integer> countByStatusForManager(String managerId) {
+        Map<ProjectStatus, Integer> result = new EnumMap<>(ProjectStatus.class);
+        for (ProjectStatus s : ProjectStatus.values()) result.put(s, 0);
+        for (String id : projectsByManager.get(managerId)) {
+            Project p = projects.get(id);
+            if (p != null) result.merge(p.getStatus(), 1, Integer::sum);
         }
         return result;
     }
+
+    /** Altera memória, índices e listeners. Exige o lock do id. */
+    private void applySave(Project project) {
+        projects.put(project.getId(), project);
+        projectsByManager.put(project.getId(), project.getGerenteId());
+        projects.fireSave(project);
+    }
+
+    private Project applyDelete(String id) {
+        Project removed = projects.remove(id);
+        if (removed == null) return null;
+        projectsByManager.remove(id);
+        projects.fireDelete(id, removed);
+        return removed;
+    }
 }
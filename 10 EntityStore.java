@@ -0,0 +1,292 @@
+package com.projectmanager.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Armazenamento concorrente usado pelos repositórios em memória.
+ * - leituras (get/values) não bloqueiam: usam ConcurrentHashMap/ConcurrentSkipListMap
+ * - escritas são serializadas por id através de locks listrados (striped),
+ *   então escritas em ids diferentes normalmente correm em paralelo
+ * - a ordem de inserção é preservada por um número de sequência
+ *
+ * O repositório deve segurar {@link #lockFor(String)} enquanto altera a entidade
+ * e seus índices, para que as duas coisas mudem juntas. Os listeners também são
+ * notificados sob esse lock, então veem as alterações de um mesmo id em ordem.
+ */
+class EntityStore<T> {
+    private static final int STRIPES = 64;
+
+    private static final class Slot<T> {
+        final long seq;
+        volatile T value;
+
+        Slot(long seq, T value) {
+            this.seq = seq;
+            this.value = value;
+        }
+    }
+
+    private final Map<String, Slot<T>> byId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Slot<T>> bySeq = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final List<RepositoryListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    EntityStore() {
+        for (int i = 0; i < STRIPES; i++) locks[i] = new ReentrantLock();
+    }
+
+    ReentrantLock lockFor(String id) {
+        return locks[stripe(id)];
+    }
+
+    /**
+     * Trava as faixas de todos os ids, sempre em ordem crescente (sem deadlock entre
+     * lotes concorrentes), e devolve os locks travados para {@link #unlockAll(List)}.
+     */
+    List<ReentrantLock> lockAll(Collection<String> ids) {
+        boolean[] needed = new boolean[STRIPES];
+        for (String id : ids) needed[stripe(id)] = true;
+        List<ReentrantLock> held = new ArrayList<>();
+        for (int i = 0; i < STRIPES; i++) {
+            if (!needed[i]) continue;
+            locks[i].lock();
+            held.add(locks[i]);
+        }
+        return held;
+    }
+
+    void unlockAll(List<ReentrantLock> held) {
+        for (int i = held.size() - 1; i >= 0; i--) held.get(i).unlock();
+    }
+
+    /**
+     * Roda a ação com todas as faixas travadas: nenhuma escrita fica entre o append no
+     * WAL e a aplicação em memória (usado na troca de geração do checkpoint).
+     */
+    void withAllLocked(Runnable action) {
+        for (int i = 0; i < STRIPES; i++) locks[i].lock();
+        try {
+            action.run();
+        } finally {
+            for (int i = STRIPES - 1; i >= 0; i--) locks[i].unlock();
+        }
+    }
+
+    private static int stripe(String id) {
+        return (id.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    /** Registra o listener e o alimenta com as entidades já existentes. */
+    void addListener(RepositoryListener<T> listener) {
+        listeners.add(listener);
+        forEachLocked((id, value) -> listener.onSave(value));
+    }
+
+    /**
+     * Entrega cada entidade existente lendo-a sob o lock do seu id, para não competir
+     * com escritas concorrentes (usado para alimentar listeners e gravar snapshots).
+     */
+    void forEachLocked(BiConsumer<String, ? super T> action) {
+        for (String id : byId.keySet()) {
+            ReentrantLock lock = lockFor(id);
+            lock.lock();
+            try {
+                T value = get(id);
+                if (value != null) action.accept(id, value);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    void fireSave(T entity) {
+        for (RepositoryListener<T> l : listeners) l.onSave(entity);
+    }
+
+    void fireDelete(String id, T removed) {
+        for (RepositoryListener<T> l : listeners) l.onDelete(id, removed);
+    }
+
+    T get(String id) {
+        Slot<T> slot = byId.get(id);
+        return slot == null ? null : slot.value;
+    }
+
+    /** Insere ou substitui; uma entidade re-salva mantém sua posição. Exige o lock do id. */
+    T put(String id, T value) {
+        Slot<T> slot = byId.get(id);
+        if (slot != null) {
+            T previous = slot.value;
+            slot.value = value;
+            return previous;
+        }
+        slot = new Slot<>(sequence.incrementAndGet(), value);
+        bySeq.put(slot.seq, slot);
+        byId.put(id, slot);
+        return null;
+    }
+
+    /** Remove e devolve a entidade, ou null se não existia. Exige o lock do id. */
+    T remove(String id) {
+        Slot<T> slot = byId.remove(id);
+        if (slot == null) return null;
+        bySeq.remove(slot.seq);
+        return slot.value;
+    }
+
+    /** Cópia na ordem de inserção. */
+    List<T> values() {
+        List<T> result = new ArrayList<>(byId.size());
+        for (Slot<T> slot : bySeq.values()) result.add(slot.value);
+        return result;
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    /**
+     * Percorre as entidades na ordem de inserção sem copiar a tabela.
+     * A visão é fracamente consistente: nunca lança ConcurrentModificationException,
+     * devolve cada entidade no máximo uma vez e pode ou não refletir escritas
+     * concorrentes feitas durante a iteração.
+     */
+    Stream<T> stream() {
+        return bySeq.values().stream().map(slot -> slot.value);
+    }
+
+    List<T> page(int offset, int limit) {
+        if (offset < 0 || limit < 0) throw new IllegalArgumentException("offset/limit negativos");
+        return stream().skip(offset).limit(limit).collect(Collectors.toList());
+    }
+
+    /**
+     * Índice secundário chave -> ids de entidades. Cada id pode estar em várias chaves
+     * (ex.: membros de uma equipe). As chaves com que o id foi indexado ficam guardadas,
+     * já que as entidades são mutáveis e não servem para descobrir o estado anterior.
+     * Alterações de um id devem ocorrer sob o lock desse id no EntityStore.
+     */
+    static final class Index {
+        private final Map<String, Set<String>> idsByKey = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> keysById = new ConcurrentHashMap<>();
+
+        void put(String id, String key) {
+            putAll(id, key == null ? Set.of() : Set.of(key));
+        }
+
+        void putAll(String id, Set<String> keys) {
+            Set<String> previous = keys.isEmpty() ? keysById.remove(id) : keysById.put(id, keys);
+            if (previous != null) {
+                for (String key : previous) {
+                    if (keys.contains(key)) continue;
+                    idsByKey.computeIfPresent(key, (k, ids) -> {
+                        ids.remove(id);
+                        return ids.isEmpty() ? null : ids;
+                    });
+                }
+            }
+            for (String key : keys) {
+                if (previous != null && previous.contains(key)) continue;
+                idsByKey.compute(key, (k, ids) -> {
+                    if (ids == null) ids = ConcurrentHashMap.newKeySet();
+                    ids.add(id);
+                    return ids;
+                });
+            }
+        }
+
+        void remove(String id) {
+            putAll(id, Set.of());
+        }
+
+        boolean containsKey(String key) {
+            return key != null && idsByKey.containsKey(key);
+        }
+
+        Set<String> get(String key) {
+            Set<String> ids = key == null ? null : idsByKey.get(key);
+            return ids == null ? Set.of() : ids;
+        }
+
+        /** Resolve os ids da chave para entidades, ignorando ids removidos no meio do caminho. */
+        <T> List<T> resolve(String key, Function<String, T> lookup) {
+            Set<String> ids = get(key);
+            List<T> result = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                T value = lookup.apply(id);
+                if (value != null) result.add(value);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Índice secundário ordenado id -> chave (ex.: data de vencimento), para consultas por
+     * faixa em O(log n + k). Cada id tem no máximo uma chave; empates saem na ordem do id.
+     * Alterações de um id devem ocorrer sob o lock desse id no EntityStore.
+     */
+    static final class SortedIndex<K extends Comparable<? super K>> {
+        private static final class Entry<K extends Comparable<? super K>> implements Comparable<Entry<K>> {
+            final K key;
+            final String id;
+
+            Entry(K key, String id) {
+                this.key = key;
+                this.id = id;
+            }
+
+            @Override
+            public int compareTo(Entry<K> o) {
+                int c = key.compareTo(o.key);
+                return c != 0 ? c : id.compareTo(o.id);
+            }
+        }
+
+        private final ConcurrentSkipListSet<Entry<K>> entries = new ConcurrentSkipListSet<>();
+        private final Map<String, K> keyById = new ConcurrentHashMap<>();
+
+        /** Define a chave do id; null tira o id do índice. */
+        void put(String id, K key) {
+            K previous = key == null ? keyById.remove(id) : keyById.put(id, key);
+            if (previous != null) {
+                if (previous.equals(key)) return;
+                entries.remove(new Entry<>(previous, id));
+            }
+            if (key != null) entries.add(new Entry<>(key, id));
+        }
+
+        void remove(String id) {
+            put(id, null);
+        }
+
+        /** Ids com chave em [from, to) na ordem da chave; null = sem limite naquele lado. */
+        List<String> range(K from, K to, int limit) {
+            // "" é o menor id possível, então (chave, "") delimita todas as entradas da chave
+            NavigableSet<Entry<K>> view = entries;
+            if (from != null) view = view.tailSet(new Entry<>(from, ""), true);
+            if (to != null) view = view.headSet(new Entry<>(to, ""), false);
+            List<String> ids = new ArrayList<>();
+            for (Entry<K> e : view) {
+                if (ids.size() == limit) break;
+                ids.add(e.id);
+            }
+            return ids;
+        }
+    }
+}
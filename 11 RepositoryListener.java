@@ -0,0 +1,12 @@
+package com.projectmanager.repository;
+
+/**
+ * Observador de alterações num repositório (estatísticas, índices derivados etc.).
+ * Chamado de forma síncrona, dentro do lock do id alterado — implementações devem
+ * ser rápidas e não devem chamar de volta métodos de escrita do repositório.
+ */
+public interface RepositoryListener<T> {
+    void onSave(T entity);
+
+    void onDelete(String id, T removed);
+}
@@ -0,0 +1,116 @@
+package com.projectmanager.service;
+
+import com.projectmanager.model.Project;
+import com.projectmanager.model.ProjectStatus;
+import com.projectmanager.model.Task;
+import com.projectmanager.model.TaskStatus;
+import com.projectmanager.model.Team;
+import com.projectmanager.repository.ProjectRepository;
+import com.projectmanager.repository.RepositoryListener;
+import com.projectmanager.repository.TaskRepository;
+import com.projectmanager.repository.TeamRepository;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estatísticas do sistema mantidas de forma incremental.
+ * Os contadores são atualizados a cada save/delete dos repositórios (via RepositoryListener),
+ * então a leitura dos contadores é O(1) — não há varredura de findAll(). Tarefas
+ * atrasadas vêm do contador de marcas do DueDateService.
+ *
+ * Como as entidades são mutáveis, guarda-se o último estado contabilizado de cada id
+ * para saber qual contador decrementar quando ela é re-salva.
+ */
+public class StatisticsService {
+    private final Map<ProjectStatus, LongAdder> projectsByStatus = new EnumMap<>(ProjectStatus.class);
+    private final Map<TaskStatus, LongAdder> tasksByStatus = new EnumMap<>(TaskStatus.class);
+    private final LongAdder activeTeams = new LongAdder();
+    private final LongAdder inactiveTeams = new LongAdder();
+
+    private final Map<String, ProjectStatus> countedProjectStatus = new ConcurrentHashMap<>();
+    private final Map<String, TaskStatus> countedTaskStatus = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> countedTeamActive = new ConcurrentHashMap<>();
+
+    private final ProjectRepository projectRepo;
+    private final TeamRepository teamRepo;
+    private final TaskRepository taskRepo;
+
+    private StatisticsService() {
+        for (ProjectStatus s : ProjectStatus.values()) projectsByStatus.put(s, new LongAdder());
+        for (TaskStatus s : TaskStatus.values()) tasksByStatus.put(s, new LongAdder());
+        this.projectRepo = ProjectRepository.getInstance();
+        this.teamRepo = TeamRepository.getInstance();
+        this.taskRepo = TaskRepository.getInstance();
+
+        projectRepo.addListener(new RepositoryListener<Project>() {
+            @Override
+            public void onSave(Project p) {
+                ProjectStatus previous = countedProjectStatus.put(p.getId(), p.getStatus());
+                if (previous != null) projectsByStatus.get(previous).decrement();
+                projectsByStatus.get(p.getStatus()).increment();
+            }
+
+            @Override
+            public void onDelete(String id, Project removed) {
+                ProjectStatus previous = countedProjectStatus.remove(id);
+                if (previous != null) projectsByStatus.get(previous).decrement();
+            }
+        });
+        teamRepo.addListener(new RepositoryListener<Team>() {
+            @Override
+            public void onSave(Team t) {
+                Boolean previous = countedTeamActive.put(t.getId(), t.isAtivo());
+                if (previous != null) (previous ? activeTeams : inactiveTeams).decrement();
+                (t.isAtivo() ? activeTeams : inactiveTeams).increment();
+            }
+
+            @Override
+            public void onDelete(String id, Team removed) {
+                Boolean previous = countedTeamActive.remove(id);
+                if (previous != null) (previous ? activeTeams : inactiveTeams).decrement();
+            }
+        });
+        taskRepo.addListener(new RepositoryListener<Task>() {
+            @Override
+            public void onSave(Task t) {
+                TaskStatus previous = countedTaskStatus.put(t.getId(), t.getStatus());
+                if (previous != null) tasksByStatus.get(previous).decrement();
+                tasksByStatus.get(t.getStatus()).increment();
+            }
+
+            @Override
+            public void onDelete(String id, Task removed) {
+                TaskStatus previous = countedTaskStatus.remove(id);
+                if (previous != null) tasksByStatus.get(previous).decrement();
+            }
+        });
+    }
+
+    private static class Holder {
+        static final StatisticsService INSTANCE = new StatisticsService();
+    }
+
+    public static StatisticsService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public int getProjectCount() { return projectRepo.count(); }
+    public int getTeamCount() { return teamRepo.count(); }
+    public int getTaskCount() { return taskRepo.count(); }
+
+    public long getProjectCount(ProjectStatus status) { return projectsByStatus.get(status).sum(); }
+    public long getTaskCount(TaskStatus status) { return tasksByStatus.get(status).sum(); }
+    public long getActiveTeamCount() { return activeTeams.sum(); }
+    public long getInactiveTeamCount() { return inactiveTeams.sum(); }
+
+    /**
+     * Tarefas em aberto marcadas como vencidas pelo DueDateService — O(1). Tarefas que
+     * vencem só entram na próxima verificação agendada; concluídas ou adiadas saem na hora.
+     */
+    public int getOverdueTaskCount() {
+        return DueDateService.getInstance().getOverdueCount();
+    }
+}
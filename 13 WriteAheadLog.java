@@ -0,0 +1,504 @@
+package com.projectmanager.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Log de escrita antecipada (WAL) de um repositório: cada save/delete vira um registro
+ * anexado a &lt;dir&gt;/&lt;nome&gt;.&lt;geração&gt;.wal, e o repositório é reconstruído na
+ * inicialização a partir do último snapshot mais os registros posteriores a ele.
+ *
+ * A persistência só é ligada quando a propriedade de sistema projectmanager.data.dir
+ * aponta para um diretório; sem ela o WAL fica desativado e os repositórios continuam
+ * apenas em memória.
+ *
+ * Formato de cada registro: [int tamanho][int crc32][corpo], com corpo =
+ * [byte operação][UTF id][entidade serializada, só em SAVE]. Um lote ({@link Batch}) é um
+ * único registro com corpo [byte BATCH][int n] seguido de n operações
+ * [byte operação][UTF id][int tamanho + entidade serializada, só em SAVE]; como o CRC
+ * cobre o lote inteiro, a recuperação aplica todas as operações ou nenhuma.
+ * Um registro incompleto ou com CRC inválido no fim do arquivo (queda no meio da
+ * escrita) é descartado.
+ *
+ * Commit em grupo: append() só copia o registro para um buffer; uma thread dedicada
+ * grava o buffer acumulado e faz um único fsync para todos os registros pendentes.
+ * {@link #awaitDurable(long)} bloqueia até o registro estar em disco. As entidades
+ * precisam ser Serializable.
+ *
+ * Snapshots ({@link #checkpoint}): o WAL passa para uma nova geração, com as escritas do
+ * repositório travadas só durante a troca, e o estado atual é gravado em
+ * &lt;nome&gt;.snap enquanto as escritas continuam na geração nova. O
+ * snapshot pode conter alterações que também estão na geração nova; como cada registro
+ * é um upsert/remoção idempotente, reaplicá-los por cima dá o mesmo estado. Depois que
+ * o snapshot está em disco as gerações anteriores são apagadas.
+ */
+public final class WriteAheadLog {
+    public static final String DATA_DIR_PROPERTY = "projectmanager.data.dir";
+
+    private static final byte OP_SAVE = 1;
+    private static final byte OP_DELETE = 2;
+    private static final byte OP_BATCH = 3;
+    private static final int MAX_RECORD_BYTES = 64 << 20;
+    private static final int SNAPSHOT_MAGIC = 0x504d534e; // "PMSN"
+    private static final int SNAPSHOT_RESET_INTERVAL = 1024;
+
+    /** Recebe os registros durante a recuperação (snapshot e depois o WAL). */
+    public interface Replayer<T> {
+        void onSave(String id, T entity);
+
+        void onDelete(String id);
+    }
+
+    private final String name;
+    private final Path dir;
+    private FileChannel channel;
+    private long generation;
+
+    private final Object lock = new Object();
+    private ByteArrayOutputStream pendingBatch = new ByteArrayOutputStream();
+    // posições lógicas, crescentes entre gerações (não são offsets de arquivo)
+    private long appendedPosition;
+    private long durablePosition;
+    private long requestedGeneration;
+    private IOException failure;
+    private boolean closed;
+
+    private WriteAheadLog(String name, Path dir) {
+        this.name = name;
+        this.dir = dir;
+    }
+
+    /** Abre o WAL do repositório informado, ou um WAL desativado se não houver diretório configurado. */
+    public static WriteAheadLog open(String name) {
+        String dir = System.getProperty(DATA_DIR_PROPERTY);
+        return new WriteAheadLog(name, dir == null || dir.isEmpty() ? null : Paths.get(dir));
+    }
+
+    public boolean isEnabled() {
+        return dir != null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Carrega o snapshot (se houver), aplica os registros das gerações seguintes, trunca
+     * uma eventual cauda corrompida e prepara o arquivo para novos appends.
+     * Deve ser chamado uma vez, antes de qualquer append.
+     */
+    public <T> void replay(Replayer<T> replayer) {
+        if (!isEnabled()) return;
+        try {
+            Files.createDirectories(dir);
+            long fromGeneration = loadSnapshot(replayer);
+            List<Long> generations = listGenerations();
+            generations.removeIf(g -> g < fromGeneration);
+            long validEnd = 0;
+            generation = generations.isEmpty() ? fromGeneration : generations.get(generations.size() - 1);
+            for (long g : generations) {
+                validEnd = replayFile(walFile(g), replayer);
+            }
+            channel = FileChannel.open(walFile(generation), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.truncate(validEnd);
+            channel.position(validEnd);
+            requestedGeneration = generation;
+            Thread syncer = new Thread(this::runSyncer, "wal-" + name);
+            syncer.setDaemon(true);
+            syncer.start();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Falha ao recuperar o WAL " + name + " em " + dir + ": " + e.getMessage(), e);
+        }
+    }
+
+    public long appendSave(String id, Object entity) {
+        if (!isEnabled()) return 0;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream body = new DataOutputStream(bytes);
+            body.writeByte(OP_SAVE);
+            body.writeUTF(id);
+            try (ObjectOutputStream out = new ObjectOutputStream(body)) {
+                out.writeObject(entity);
+            }
+            checkRecordSize(bytes.size(), "Registro de " + id);
+            return append(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao serializar " + id + " para o WAL " + name, e);
+        }
+    }
+
+    public long appendDelete(String id) {
+        if (!isEnabled()) return 0;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream body = new DataOutputStream(bytes);
+            body.writeByte(OP_DELETE);
+            body.writeUTF(id);
+            checkRecordSize(bytes.size(), "Registro de " + id);
+            return append(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Lote vazio para {@link #appendBatch(Batch)}; com o WAL desativado nada é serializado. */
+    public Batch newBatch() {
+        return new Batch(isEnabled());
+    }
+
+    /** Anexa o lote como um único registro e devolve sua posição (0 se vazio ou desativado). */
+    public long appendBatch(Batch batch) {
+        if (!isEnabled() || batch.count == 0) return 0;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(5 + batch.bytes.size());
+            DataOutputStream body = new DataOutputStream(bytes);
+            body.writeByte(OP_BATCH);
+            body.writeInt(batch.count);
+            batch.bytes.writeTo(body);
+            checkRecordSize(bytes.size(), "Lote de " + batch.count + " operações");
+            return append(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Recusa o registro antes de anexá-lo: na recuperação um registro acima do limite é
+     * tratado como cauda corrompida e tudo o que veio depois dele seria descartado.
+     */
+    private void checkRecordSize(int size, String what) {
+        if (size > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException(what + " excede o tamanho máximo de registro do WAL " + name);
+        }
+    }
+
+    /** Operações acumuladas para entrar no WAL como um só registro (ver appendBatch). */
+    public static final class Batch {
+        private final boolean enabled;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int count;
+
+        private Batch(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public void save(String id, Object entity) {
+            if (!enabled) return;
+            try {
+                ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+                try (ObjectOutputStream objects = new ObjectOutputStream(serialized)) {
+                    objects.writeObject(entity);
+                }
+                out.writeByte(OP_SAVE);
+                out.writeUTF(id);
+                out.writeInt(serialized.size());
+                serialized.writeTo(out);
+                count++;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao serializar " + id + " para o WAL", e);
+            }
+        }
+
+        public void delete(String id) {
+            if (!enabled) return;
+            try {
+                out.writeByte(OP_DELETE);
+                out.writeUTF(id);
+                count++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // ByteArrayOutputStream não lança
+            }
+        }
+    }
+
+    /** Bloqueia até que o registro que terminou em {@code position} esteja em disco. */
+    public void awaitDurable(long position) {
+        if (!isEnabled() || position == 0) return;
+        synchronized (lock) {
+            while (durablePosition < position) {
+                if (failure != null) throw new UncheckedIOException("WAL " + name + " falhou", failure);
+                waitOnLock();
+            }
+        }
+    }
+
+    /**
+     * Grava um snapshot compacto com as entidades entregues por {@code source} e descarta
+     * as gerações de WAL que ele cobre. A troca de geração roda dentro de {@code quiesce},
+     * que deve travar todas as escritas do repositório: assim todo registro da geração
+     * antiga já está aplicado em memória — inclusive ids novos, que o {@code source} ainda
+     * não enxergaria. O {@code source} deve ler cada entidade sob o lock do seu id.
+     */
+    public synchronized void checkpoint(Consumer<Runnable> quiesce, Consumer<BiConsumer<String, Object>> source) {
+        if (!isEnabled()) return;
+        long[] rotated = new long[1];
+        quiesce.accept(() -> rotated[0] = rotate());
+        long snapshotGeneration = rotated[0];
+        Path tmp = dir.resolve(name + ".snap.tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Channels.newOutputStream(ch), 1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(snapshotGeneration);
+            int[] written = {0};
+            source.accept((id, entity) -> {
+                try {
+                    out.writeBoolean(true);
+                    out.writeUTF(id);
+                    out.writeObject(entity);
+                    // evita que a tabela de referências do stream retenha todas as entidades
+                    if (++written[0] % SNAPSHOT_RESET_INTERVAL == 0) out.reset();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.writeBoolean(false);
+            out.flush();
+            ch.force(true);
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalStateException("Falha ao gravar snapshot de " + name + ": " + e.getMessage(), e);
+        }
+        try {
+            Files.move(tmp, dir.resolve(name + ".snap"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            for (long g : listGenerations()) {
+                if (g < snapshotGeneration) Files.deleteIfExists(walFile(g));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao publicar snapshot de " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    /** Grava o que estiver pendente e fecha o arquivo. */
+    public void close() {
+        if (!isEnabled()) return;
+        long target;
+        synchronized (lock) {
+            target = appendedPosition;
+        }
+        awaitDurable(target);
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+    }
+
+    /** Pede à thread de sync que passe para uma nova geração e espera a troca. */
+    private long rotate() {
+        synchronized (lock) {
+            if (channel == null) throw new IllegalStateException("WAL " + name + " não foi recuperado (replay)");
+            long target = requestedGeneration = generation + 1;
+            lock.notifyAll();
+            while (generation < target) {
+                if (failure != null) throw new UncheckedIOException("WAL " + name + " falhou", failure);
+                waitOnLock();
+            }
+            return target;
+        }
+    }
+
+    private long append(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        synchronized (lock) {
+            if (channel == null) throw new IllegalStateException("WAL " + name + " não foi recuperado (replay)");
+            if (closed) throw new IllegalStateException("WAL " + name + " já foi fechado");
+            if (failure != null) throw new UncheckedIOException("WAL " + name + " falhou", failure);
+            DataOutputStream out = new DataOutputStream(pendingBatch);
+            try {
+                out.writeInt(body.length);
+                out.writeInt((int) crc.getValue());
+                out.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // ByteArrayOutputStream não lança
+            }
+            appendedPosition += 8 + body.length;
+            lock.notifyAll();
+            return appendedPosition;
+        }
+    }
+
+    private void runSyncer() {
+        while (true) {
+            byte[] batch;
+            long target;
+            boolean roll;
+            synchronized (lock) {
+                while (pendingBatch.size() == 0 && requestedGeneration == generation && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pendingBatch.size() == 0 && requestedGeneration == generation) break;
+                batch = pendingBatch.toByteArray();
+                pendingBatch = new ByteArrayOutputStream(Math.max(32, batch.length));
+                target = appendedPosition;
+                roll = requestedGeneration > generation;
+            }
+            try {
+                ByteBuffer buf = ByteBuffer.wrap(batch);
+                while (buf.hasRemaining()) channel.write(buf);
+                channel.force(false);
+                FileChannel next = null;
+                if (roll) {
+                    channel.close();
+                    next = FileChannel.open(walFile(generation + 1), StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                }
+                synchronized (lock) {
+                    durablePosition = target;
+                    if (next != null) {
+                        channel = next;
+                        generation++;
+                    }
+                    lock.notifyAll();
+                }
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // fechamento após o último fsync bem-sucedido; nada a perder
+        }
+    }
+
+    private void waitOnLock() {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o WAL " + name, e);
+        }
+    }
+
+    /** Aplica o snapshot e devolve a geração de WAL a partir da qual reaplicar. */
+    @SuppressWarnings("unchecked")
+    private <T> long loadSnapshot(Replayer<T> replayer) throws IOException, ClassNotFoundException {
+        Path snap = dir.resolve(name + ".snap");
+        if (!Files.exists(snap)) return 0;
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(snap), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("snapshot inválido: " + snap);
+            long fromGeneration = in.readLong();
+            while (in.readBoolean()) {
+                String id = in.readUTF();
+                replayer.onSave(id, (T) in.readObject());
+            }
+            return fromGeneration;
+        }
+    }
+
+    /** Reaplica um arquivo de WAL e devolve o offset do fim do último registro válido. */
+    @SuppressWarnings("unchecked")
+    private static <T> long replayFile(Path file, Replayer<T> replayer) throws IOException, ClassNotFoundException {
+        long validEnd = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                byte[] body = readRecord(in);
+                if (body == null) break;
+                DataInputStream rec = new DataInputStream(new ByteArrayInputStream(body));
+                byte op = rec.readByte();
+                if (op == OP_BATCH) {
+                    int n = rec.readInt();
+                    for (int i = 0; i < n; i++) {
+                        byte batchOp = rec.readByte();
+                        String id = rec.readUTF();
+                        if (batchOp == OP_SAVE) {
+                            byte[] entity = new byte[rec.readInt()];
+                            rec.readFully(entity);
+                            replayer.onSave(id, (T) deserialize(new ByteArrayInputStream(entity)));
+                        } else {
+                            replayer.onDelete(id);
+                        }
+                    }
+                } else {
+                    String id = rec.readUTF();
+                    if (op == OP_SAVE) {
+                        replayer.onSave(id, (T) deserialize(rec));
+                    } else {
+                        replayer.onDelete(id);
+                    }
+                }
+                validEnd += 8 + body.length;
+            }
+        }
+        return validEnd;
+    }
+
+    private List<Long> listGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, name + ".*.wal")) {
+            for (Path f : files) {
+                String n = f.getFileName().toString();
+                String g = n.substring(name.length() + 1, n.length() - ".wal".length());
+                try {
+                    generations.add(Long.parseLong(g));
+                } catch (NumberFormatException ignored) {
+                    // arquivo que não segue o padrão de geração
+                }
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+
+    private Path walFile(long gen) {
+        return dir.resolve(String.format("%s.%06d.wal", name, gen));
+    }
+
+    /** Lê um registro inteiro e válido, ou null no fim do arquivo / cauda corrompida. */
+    private static byte[] readRecord(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            int expectedCrc = in.readInt();
+            if (length < 0 || length > MAX_RECORD_BYTES) return null;
+            byte[] body = new byte[length];
+            in.readFully(body);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            return (int) crc.getValue() == expectedCrc ? body : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static Object deserialize(InputStream in) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream objects = new ObjectInputStream(in)) {
+            return objects.readObject();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.projectmanager.service;
+
+import com.projectmanager.repository.ProjectRepository;
+import com.projectmanager.repository.TaskRepository;
+import com.projectmanager.repository.TeamRepository;
+import com.projectmanager.repository.WriteAheadLog;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agenda snapshots periódicos dos repositórios e força os segmentos do log de auditoria.
+ * Cada snapshot roda em segundo plano enquanto as escritas continuam; na próxima
+ * inicialização os repositórios carregam o snapshot e reaplicam só a cauda do WAL.
+ * Intervalo configurável por projectmanager.snapshot.interval (segundos, padrão 300).
+ * Só tem efeito quando projectmanager.data.dir está definido.
+ * Falhas do agendamento são registradas como SNAPSHOT_FAILED no LogService e a última
+ * fica disponível em {@link #getLastFailure()}.
+ */
+public class SnapshotService {
+    private static final long DEFAULT_INTERVAL_SECONDS = 300;
+    static final String FAILURE_ACTION = "SNAPSHOT_FAILED";
+
+    private ScheduledExecutorService scheduler;
+    private volatile String lastFailure;
+
+    private SnapshotService() {}
+
+    private static class Holder {
+        static final SnapshotService INSTANCE = new SnapshotService();
+    }
+
+    public static SnapshotService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public static boolean isPersistenceEnabled() {
+        String dir = System.getProperty(WriteAheadLog.DATA_DIR_PROPERTY);
+        return dir != null && !dir.isEmpty();
+    }
+
+    public synchronized void start() {
+        if (scheduler != null || !isPersistenceEnabled()) return;
+        long interval = Long.getLong("projectmanager.snapshot.interval", DEFAULT_INTERVAL_SECONDS);
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /** Grava um snapshot de tudo agora, na thread chamadora. */
+    public void snapshotNow() {
+        ProjectRepository.getInstance().checkpoint();
+        TeamRepository.getInstance().checkpoint();
+        TaskRepository.getInstance().checkpoint();
+        LogService.getInstance().checkpoint();
+    }
+
+    /** Para o agendamento e grava um último snapshot, deixando a próxima partida rápida. */
+    public synchronized void shutdown() {
+        if (scheduler == null) return;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+        snapshotNow();
+    }
+
+    /** Última falha do snapshot agendado ("data: mensagem"), ou null se nunca falhou. */
+    public String getLastFailure() {
+        return lastFailure;
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshotNow();
+        } catch (RuntimeException e) {
+            // uma falha de snapshot não pode derrubar o agendamento; o WAL continua valendo
+            lastFailure = LocalDateTime.now() + ": " + e.getMessage();
+            try {
+                LogService.getInstance().log("SYSTEM", FAILURE_ACTION, "snapshot", e.getMessage());
+            } catch (RuntimeException logFailure) {
+                // o próprio log de auditoria pode ser a causa; lastFailure já guarda o erro
+            }
+        }
+    }
+}
@@ -0,0 +1,570 @@
+package com.projectmanager.service;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Armazenamento em disco do log de auditoria: arquivos de segmento de tamanho fixo
+ * (audit-NNNNNN.seg) mapeados em memória, com as entradas num formato binário compacto.
+ * Quando um segmento enche, o próximo é criado. As entradas antigas são lidas direto
+ * do mapeamento, sob demanda, sem serem carregadas no heap.
+ *
+ * Layout do segmento: [int magic][int versão][long seq base] seguido de registros
+ * [int tamanho][long epoch ms][4 strings: userId, action, entity, details]
+ * com cada string como [short tamanho ou -1 para null][UTF-8]. Tamanho 0 marca o fim.
+ * Segmentos da versão 0 (timestamp como [long epochSecond][int nano]) continuam legíveis.
+ *
+ * Índices por entidade, ação e usuário (listas de posições por valor) ficam por segmento:
+ * o do segmento ativo em memória; ao encher, o segmento é selado e o índice vai para
+ * audit-NNNNNN.idx, que é mapeado e consultado por busca binária sem ser carregado no
+ * heap. Na abertura só o segmento ativo é decodificado; os selados leem apenas o .idx
+ * (um segmento selado sem .idx — queda antes de gravá-lo — é varrido e o .idx refeito).
+ * Buscas por tempo usam os timestamps das posições esparsas, lidos direto do mapeamento.
+ *
+ * Layout do .idx: [int magic][int count][int writeOffset][int n][n offsets esparsos]
+ * [int início do diretório de cada campo], e por campo [int k][k offsets de entrada,
+ * ordenados pela chave], com cada entrada [short tamanho][chave UTF-8][int m][m posições].
+ *
+ * Escritas acontecem só sob o writeLock do LogService; leituras não travam (cada leitor
+ * usa uma cópia independente do ByteBuffer e só lê seqs já publicados).
+ */
+final class AuditSegmentStore {
+    private static final int MAGIC = 0x504d4153; // "PMAS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    // posição de 1 a cada SPARSE_EVERY registros fica no heap; o resto é percorrido no arquivo
+    private static final int SPARSE_EVERY = 64;
+    private static final int INDEX_MAGIC = 0x504d4149; // "PMAI"
+    private static final int[] NO_POSITIONS = new int[0];
+
+    // campos indexados (ver positions)
+    static final int ENTITY = 0;
+    static final int ACTION = 1;
+    static final int USER = 2;
+    private static final int FIELDS = 3;
+
+    /** Posições (relativas ao segmento, crescentes) com o valor {@code key} no campo. */
+    private interface SegmentIndex {
+        int[] lookup(int field, String key);
+    }
+
+    private static final class Segment {
+        final Path file;
+        final long baseSeq;
+        final int version;
+        final MappedByteBuffer map;
+        volatile int[] sparse = new int[16];
+        volatile int count;
+        int writeOffset = HEADER_SIZE;
+        // ActiveIndex enquanto recebe escritas, SealedIndex depois de selado
+        volatile SegmentIndex index;
+
+        Segment(Path file, long baseSeq, int version, MappedByteBuffer map) {
+            this.file = file;
+            this.baseSeq = baseSeq;
+            this.version = version;
+            this.map = map;
+        }
+    }
+
+    private final Path dir;
+    private final int segmentSize;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    private AuditSegmentStore(Path dir, int segmentSize) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+    }
+
+    /** Abre (ou cria) os segmentos em {@code dir}; só o último é decodificado. */
+    static AuditSegmentStore open(Path dir, int segmentSize) {
+        AuditSegmentStore store = new AuditSegmentStore(dir, segmentSize);
+        try {
+            Files.createDirectories(dir);
+            List<Path> files = new ArrayList<>();
+            try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "audit-*.seg")) {
+                for (Path f : ds) files.add(f);
+            }
+            files.sort(null);
+            for (int i = 0; i < files.size(); i++) {
+                Segment seg = store.map(files.get(i), -1);
+                boolean last = i == files.size() - 1;
+                if (last || !store.loadIndex(seg)) {
+                    ActiveIndex index = new ActiveIndex();
+                    store.scan(seg, index);
+                    seg.index = index;
+                    if (!last) store.seal(seg);
+                }
+                store.segments.add(seg);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir segmentos de auditoria em " + dir, e);
+        }
+        return store;
+    }
+
+    /** Total de entradas gravadas (o próximo seq). */
+    long size() {
+        if (segments.isEmpty()) return 0;
+        Segment last = segments.get(segments.size() - 1);
+        return last.baseSeq + last.count;
+    }
+
+    /** Grava a entrada de número {@code seq}. Exige o writeLock do LogService. */
+    void append(long seq, LogService.LogEntry entry) {
+        byte[] record = encode(entry);
+        if (record.length + 8 > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("entrada de log maior que o segmento (" + record.length + " bytes)");
+        }
+        Segment seg = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        // + 4 garante espaço para o marcador de fim (tamanho 0) depois do registro
+        if (seg == null || seg.writeOffset + 4 + record.length + 4 > segmentSize) {
+            if (seg != null) seal(seg);
+            seg = roll(seq);
+        }
+        int index = seg.count;
+        if (index % SPARSE_EVERY == 0) {
+            int slot = index / SPARSE_EVERY;
+            int[] sparse = seg.sparse;
+            if (slot == sparse.length) sparse = Arrays.copyOf(sparse, sparse.length * 2);
+            sparse[slot] = seg.writeOffset;
+            seg.sparse = sparse;
+        }
+        // corpo primeiro, tamanho por último: um registro só "existe" depois de completo
+        ByteBuffer out = seg.map.duplicate();
+        out.position(seg.writeOffset + 4);
+        out.put(record);
+        seg.map.putInt(seg.writeOffset, record.length);
+        seg.writeOffset = out.position();
+        seg.count = index + 1;
+        ((ActiveIndex) seg.index).add(index, entry);
+    }
+
+    /**
+     * Posições em [from, to) cujo campo ({@link #ENTITY}, {@link #ACTION} ou {@link #USER})
+     * é igual a {@code key}, em ordem crescente.
+     */
+    long[] positions(int field, String key, long from, long to) {
+        List<int[]> found = new ArrayList<>();
+        List<Segment> overlapping = new ArrayList<>();
+        int total = 0;
+        for (Segment seg : segments) {
+            if (seg.baseSeq >= to) break;
+            if (seg.baseSeq + seg.count <= from) continue;
+            int[] rel = seg.index.lookup(field, key);
+            if (rel.length == 0) continue;
+            found.add(rel);
+            overlapping.add(seg);
+            total += rel.length;
+        }
+        long[] out = new long[total];
+        int n = 0;
+        for (int i = 0; i < found.size(); i++) {
+            long base = overlapping.get(i).baseSeq;
+            for (int rel : found.get(i)) {
+                long seq = base + rel;
+                if (seq >= from && seq < to) out[n++] = seq;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /** Uma posição antes da qual todo timestamp é menor que {@code fromMs} (no máximo {@code end}). */
+    long lowerBound(long fromMs, long end) {
+        // último ponto esparso com timestamp < fromMs; tudo antes dele também é menor
+        int s = lastSegmentStartingBefore(fromMs, false);
+        if (s < 0) return 0;
+        Segment seg = segments.get(s);
+        int lo = 0;
+        int hi = sparseCount(seg) - 1;
+        int found = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sparseTimestamp(seg, mid) < fromMs) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return Math.min(end, seg.baseSeq + (long) found * SPARSE_EVERY);
+    }
+
+    /** Posição a partir da qual todo timestamp é maior que {@code toMs} (no máximo {@code end}). */
+    long upperBound(long toMs, long end) {
+        // primeiro ponto esparso com timestamp > toMs
+        int s = lastSegmentStartingBefore(toMs, true);
+        if (s < 0) return 0;
+        Segment seg = segments.get(s);
+        int lo = 0;
+        int hi = sparseCount(seg);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sparseTimestamp(seg, mid) <= toMs) lo = mid + 1; else hi = mid;
+        }
+        if (lo < sparseCount(seg)) return Math.min(end, seg.baseSeq + (long) lo * SPARSE_EVERY);
+        return s + 1 < segments.size() ? Math.min(end, segments.get(s + 1).baseSeq) : end;
+    }
+
+    /** Último segmento cuja primeira entrada tem timestamp < t (ou <= t com inclusive), -1 se nenhum. */
+    private int lastSegmentStartingBefore(long t, boolean inclusive) {
+        int lo = 0;
+        int hi = segments.size() - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            Segment seg = segments.get(mid);
+            long first = seg.count == 0 ? Long.MAX_VALUE : sparseTimestamp(seg, 0);
+            if (first < t || (inclusive && first == t)) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private static int sparseCount(Segment seg) {
+        return (seg.count + SPARSE_EVERY - 1) / SPARSE_EVERY;
+    }
+
+    /** Timestamp da entrada no ponto esparso k, lido do mapeamento sem decodificar o resto. */
+    private static long sparseTimestamp(Segment seg, int k) {
+        int offset = seg.sparse[k] + 4;
+        if (seg.version != 0) return seg.map.getLong(offset);
+        LocalDateTime local = LocalDateTime.ofEpochSecond(seg.map.getLong(offset), seg.map.getInt(offset + 8), ZoneOffset.UTC);
+        return local.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /** Lê a entrada {@code seq} direto do segmento mapeado. */
+    LogService.LogEntry read(long seq) {
+        Segment seg = find(seq);
+        if (seg == null) throw new IndexOutOfBoundsException("seq fora do log: " + seq);
+        int index = (int) (seq - seg.baseSeq);
+        ByteBuffer in = seg.map.duplicate();
+        in.position(seg.sparse[index / SPARSE_EVERY]);
+        for (int i = 0; i < index % SPARSE_EVERY; i++) {
+            int len = in.getInt();
+            in.position(in.position() + len);
+        }
+        in.getInt();
+        return decode(in, seg.version);
+    }
+
+    /** Força os segmentos para o disco. */
+    void force() {
+        for (Segment seg : segments) seg.map.force();
+    }
+
+    private Segment find(long seq) {
+        int lo = 0;
+        int hi = segments.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            Segment seg = segments.get(mid);
+            if (seq < seg.baseSeq) {
+                hi = mid - 1;
+            } else if (seq >= seg.baseSeq + seg.count) {
+                lo = mid + 1;
+            } else {
+                return seg;
+            }
+        }
+        return null;
+    }
+
+    private Segment roll(long baseSeq) {
+        try {
+            Segment seg = map(dir.resolve(String.format("audit-%06d.seg", segments.size() + 1)), baseSeq);
+            seg.index = new ActiveIndex();
+            segments.add(seg);
+            return seg;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao criar segmento de auditoria", e);
+        }
+    }
+
+    /** Mapeia o arquivo; com baseSeq >= 0 inicializa um segmento novo. */
+    private Segment map(Path file, long baseSeq) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            if (baseSeq >= 0) raf.setLength(segmentSize);
+            MappedByteBuffer map = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+            if (baseSeq >= 0) {
+                map.putInt(0, MAGIC);
+                map.putInt(4, VERSION);
+                map.putLong(8, baseSeq);
+            } else if (map.getInt(0) != MAGIC || map.getInt(4) > VERSION) {
+                throw new IOException("segmento de auditoria inválido: " + file);
+            }
+            return new Segment(file, map.getLong(8), map.getInt(4), map);
+        }
+    }
+
+    private static Path indexFile(Segment seg) {
+        String name = seg.file.getFileName().toString();
+        return seg.file.resolveSibling(name.substring(0, name.length() - ".seg".length()) + ".idx");
+    }
+
+    /**
+     * Grava o índice do segmento (que não recebe mais escritas) em .idx e passa a
+     * consultá-lo pelo mapeamento. Exige o writeLock do LogService (ou a abertura).
+     */
+    private void seal(Segment seg) {
+        ActiveIndex active = (ActiveIndex) seg.index;
+        int[] sparse = seg.sparse;
+        int sparseCount = sparseCount(seg);
+        List<List<String>> keys = new ArrayList<>(FIELDS);
+        int headerSize = 16 + 4 * sparseCount + 4 * FIELDS;
+        int size = headerSize;
+        for (int f = 0; f < FIELDS; f++) {
+            List<String> sorted = new ArrayList<>(active.fields.get(f).keySet());
+            sorted.sort(null);
+            keys.add(sorted);
+            size += 4 + 4 * sorted.size();
+            for (String key : sorted) {
+                size += 2 + bytes(key).length + 4 + 4 * active.fields.get(f).get(key).size();
+            }
+        }
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(INDEX_MAGIC).putInt(seg.count).putInt(seg.writeOffset).putInt(sparseCount);
+        for (int i = 0; i < sparseCount; i++) out.putInt(sparse[i]);
+        int dirOffset = headerSize;
+        for (int f = 0; f < FIELDS; f++) {
+            out.putInt(dirOffset);
+            dirOffset += 4 + 4 * keys.get(f).size();
+        }
+        int entryOffset = dirOffset;
+        for (int f = 0; f < FIELDS; f++) {
+            List<String> sorted = keys.get(f);
+            out.putInt(sorted.size());
+            int entriesAt = out.position();
+            int dirAt = entriesAt;
+            for (String key : sorted) {
+                int[] positions = active.fields.get(f).get(key).toArray();
+                byte[] k = bytes(key);
+                out.putInt(dirAt, entryOffset);
+                dirAt += 4;
+                out.position(entryOffset);
+                out.putShort((short) k.length).put(k).putInt(positions.length);
+                for (int p : positions) out.putInt(p);
+                entryOffset = out.position();
+            }
+            out.position(entriesAt + 4 * sorted.size());
+        }
+        Path file = indexFile(seg);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.clear();
+                while (out.hasRemaining()) ch.write(out);
+                ch.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // o índice em memória é descartado; a partir daqui as consultas leem o .idx mapeado
+            seg.index = new SealedIndex(mapReadOnly(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar índice de auditoria " + file, e);
+        }
+    }
+
+    private static MappedByteBuffer mapReadOnly(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+    }
+
+    /** Lê count, offsets esparsos e o índice de um segmento selado; false se o .idx faltar ou não bater. */
+    private boolean loadIndex(Segment seg) throws IOException {
+        Path file = indexFile(seg);
+        if (!Files.exists(file)) return false;
+        MappedByteBuffer idx = mapReadOnly(file);
+        if (idx.capacity() < 16 || idx.getInt(0) != INDEX_MAGIC) return false;
+        int count = idx.getInt(4);
+        int writeOffset = idx.getInt(8);
+        int sparseCount = idx.getInt(12);
+        if (writeOffset > seg.map.capacity() || sparseCount != (count + SPARSE_EVERY - 1) / SPARSE_EVERY) return false;
+        int[] sparse = new int[Math.max(16, sparseCount)];
+        for (int i = 0; i < sparseCount; i++) sparse[i] = idx.getInt(16 + 4 * i);
+        seg.sparse = sparse;
+        seg.writeOffset = writeOffset;
+        seg.count = count;
+        seg.index = new SealedIndex(idx);
+        return true;
+    }
+
+    private void scan(Segment seg, ActiveIndex active) {
+        ByteBuffer in = seg.map.duplicate();
+        in.position(HEADER_SIZE);
+        while (in.remaining() >= 4) {
+            int start = in.position();
+            int len = in.getInt();
+            if (len <= 0 || len > in.remaining()) break;
+            int index = seg.count;
+            if (index % SPARSE_EVERY == 0) {
+                int slot = index / SPARSE_EVERY;
+                if (slot == seg.sparse.length) seg.sparse = Arrays.copyOf(seg.sparse, seg.sparse.length * 2);
+                seg.sparse[slot] = start;
+            }
+            int next = in.position() + len;
+            active.add(index, decode(in, seg.version));
+            in.position(next);
+            seg.count = index + 1;
+            seg.writeOffset = next;
+        }
+    }
+
+    private static byte[] encode(LogService.LogEntry e) {
+        byte[][] strings = {bytes(e.getUserId()), bytes(e.getAction()), bytes(e.getEntity()), bytes(e.getDetails())};
+        int size = 8;
+        for (byte[] s : strings) size += 2 + (s == null ? 0 : s.length);
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putLong(e.getTimestampMillis());
+        for (byte[] s : strings) {
+            if (s == null) {
+                out.putShort((short) -1);
+            } else {
+                out.putShort((short) s.length);
+                out.put(s);
+            }
+        }
+        return out.array();
+    }
+
+    private static LogService.LogEntry decode(ByteBuffer in, int version) {
+        long ts;
+        if (version == 0) {
+            LocalDateTime local = LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+            ts = local.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } else {
+            ts = in.getLong();
+        }
+        String userId = string(in);
+        String action = string(in);
+        String entity = string(in);
+        String details = string(in);
+        return new LogService.LogEntry(userId, ts, action, entity, details);
+    }
+
+    private static byte[] bytes(String s) {
+        if (s == null) return null;
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        if (b.length <= Short.MAX_VALUE) return b;
+        // strings são gravadas com tamanho em short; detalhes muito longos são cortados,
+        // recuando até o início de um caractere para não partir uma sequência UTF-8
+        int cut = Short.MAX_VALUE;
+        while (cut > 0 && (b[cut] & 0xC0) == 0x80) cut--;
+        return Arrays.copyOf(b, cut);
+    }
+
+    private static String string(ByteBuffer in) {
+        short len = in.getShort();
+        if (len < 0) return null;
+        byte[] b = new byte[len];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    /** Índice do segmento ativo, em memória; cresce só até o segmento encher. */
+    private static final class ActiveIndex implements SegmentIndex {
+        final List<Map<String, IntList>> fields =
+                List.of(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+        /** Exige o writeLock do LogService (ou a abertura). */
+        void add(int position, LogService.LogEntry e) {
+            add(ENTITY, e.getEntity(), position);
+            add(ACTION, e.getAction(), position);
+            add(USER, e.getUserId(), position);
+        }
+
+        private void add(int field, String key, int position) {
+            if (key != null) fields.get(field).computeIfAbsent(key, k -> new IntList()).add(position);
+        }
+
+        @Override
+        public int[] lookup(int field, String key) {
+            IntList positions = fields.get(field).get(key);
+            return positions == null ? NO_POSITIONS : positions.toArray();
+        }
+    }
+
+    /** Índice de um segmento selado, consultado direto do .idx por busca binária. */
+    private static final class SealedIndex implements SegmentIndex {
+        private final ByteBuffer idx;
+
+        SealedIndex(ByteBuffer idx) {
+            this.idx = idx;
+        }
+
+        @Override
+        public int[] lookup(int field, String key) {
+            int sparseCount = idx.getInt(12);
+            int dir = idx.getInt(16 + 4 * sparseCount + 4 * field);
+            int lo = 0;
+            int hi = idx.getInt(dir) - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int entry = idx.getInt(dir + 4 + 4 * mid);
+                int cmp = keyAt(entry).compareTo(key);
+                if (cmp < 0) {
+                    lo = mid + 1;
+                } else if (cmp > 0) {
+                    hi = mid - 1;
+                } else {
+                    int at = entry + 2 + idx.getShort(entry);
+                    int[] positions = new int[idx.getInt(at)];
+                    for (int i = 0; i < positions.length; i++) positions[i] = idx.getInt(at + 4 + 4 * i);
+                    return positions;
+                }
+            }
+            return NO_POSITIONS;
+        }
+
+        private String keyAt(int entry) {
+            byte[] b = new byte[idx.getShort(entry)];
+            ByteBuffer in = idx.duplicate();
+            in.position(entry + 2);
+            in.get(b);
+            return new String(b, StandardCharsets.UTF_8);
+        }
+    }
+
+    /** Lista crescente de posições de um valor no segmento ativo. */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        synchronized void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.projectmanager.benchmark;
+
+import com.projectmanager.model.Project;
+import com.projectmanager.model.Task;
+import com.projectmanager.model.Team;
+import com.projectmanager.repository.ProjectRepository;
+import com.projectmanager.repository.TaskRepository;
+import com.projectmanager.repository.TeamRepository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks JMH dos caminhos quentes dos repositórios, com 1k, 100k e 1M entidades.
+ * Os repositórios são singletons, então cada combinação de parâmetros roda num fork
+ * próprio (JVM nova, repositórios vazios antes do setup). Sem projectmanager.data.dir
+ * o WAL fica desligado e se mede só a parte em memória.
+ *
+ * SingleThread e Contended herdam os mesmos métodos; o segundo roda com 8 threads
+ * disputando os mesmos repositórios. main() executa tudo com o GCProfiler, que
+ * reporta a taxa de alocação (gc.alloc.rate.norm = bytes por operação).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class RepositoryBenchmark {
+    private static final int MANAGERS = 100;
+    private static final int USERS = 1000;
+
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"1000", "100000", "1000000"})
+        public int size;
+
+        final ProjectRepository projectRepo = ProjectRepository.getInstance();
+        final TeamRepository teamRepo = TeamRepository.getInstance();
+        final TaskRepository taskRepo = TaskRepository.getInstance();
+
+        Project[] projects;
+        Team[] teams;
+        Task[] tasks;
+
+        @Setup
+        public void populate() {
+            // 1 projeto e 1 equipe para cada 10 tarefas, como num uso real
+            int groups = Math.max(1, size / 10);
+            projects = new Project[groups];
+            teams = new Team[groups];
+            tasks = new Task[size];
+            LocalDate inicio = LocalDate.now();
+            for (int i = 0; i < groups; i++) {
+                Project p = new Project("Projeto " + i, "Descrição " + i, inicio, inicio.plusDays(30), "m" + (i % MANAGERS));
+                projectRepo.save(p);
+                projects[i] = p;
+                Team t = new Team("Equipe " + i, "Descrição " + i, "u" + (i % USERS));
+                t.addMember("u" + ((i + 1) % USERS));
+                teamRepo.save(t);
+                teams[i] = t;
+            }
+            for (int i = 0; i < size; i++) {
+                Task t = new Task("Tarefa " + i, "Descrição " + i, projects[i % groups].getId(), teams[i % groups].getId());
+                taskRepo.save(t);
+                tasks[i] = t;
+            }
+        }
+
+        Project randomProject() {
+            return projects[ThreadLocalRandom.current().nextInt(projects.length)];
+        }
+
+        Team randomTeam() {
+            return teams[ThreadLocalRandom.current().nextInt(teams.length)];
+        }
+
+        Task randomTask() {
+            return tasks[ThreadLocalRandom.current().nextInt(tasks.length)];
+        }
+    }
+
+    @Threads(1)
+    public static class SingleThread extends RepositoryBenchmark {
+    }
+
+    @Threads(8)
+    public static class Contended extends RepositoryBenchmark {
+    }
+
+    /** Re-save de uma tarefa existente: o tamanho do repositório não muda entre iterações. */
+    @Benchmark
+    public Task saveTask(Data d) {
+        Task t = d.randomTask();
+        d.taskRepo.save(t);
+        return t;
+    }
+
+    @Benchmark
+    public Optional<Task> findTaskById(Data d) {
+        return d.taskRepo.findById(d.randomTask().getId());
+    }
+
+    @Benchmark
+    public List<Task> findByProjectId(Data d) {
+        return d.taskRepo.findByProjectId(d.randomProject().getId());
+    }
+
+    @Benchmark
+    public List<Task> findByTeamId(Data d) {
+        return d.taskRepo.findByTeamId(d.randomTeam().getId());
+    }
+
+    @Benchmark
+    public List<Team> findByMemberId(Data d) {
+        return d.teamRepo.findByMemberId("u" + ThreadLocalRandom.current().nextInt(USERS));
+    }
+
+    @Benchmark
+    public List<Project> findByManagerId(Data d) {
+        return d.projectRepo.findByManagerId("m" + ThreadLocalRandom.current().nextInt(MANAGERS));
+    }
+
+    @Benchmark
+    public List<Task> findAllTasks(Data d) {
+        return d.taskRepo.findAll();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RepositoryBenchmark.class.getName() + "|" + LogServiceBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,71 @@
+package com.projectmanager.benchmark;
+
+import com.projectmanager.service.LogService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks JMH do LogService com 1k, 100k e 1M entradas já registradas.
+ * A capacidade do buffer é fixada em 1M para que nenhuma entrada do setup seja
+ * descartada; cada entidade tem ~10 entradas no histórico.
+ * Rodar junto com os repositórios via RepositoryBenchmark.main (GCProfiler ligado).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dprojectmanager.log.capacity=1000000")
+public abstract class LogServiceBenchmark {
+    private static final String[] ACTIONS = {"CREATE_TASK", "START_TASK", "COMPLETE_TASK", "EDIT_PROJECT"};
+
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"1000", "100000", "1000000"})
+        public int size;
+
+        final LogService logService = LogService.getInstance();
+        int entities;
+
+        @Setup
+        public void populate() {
+            entities = Math.max(1, size / 10);
+            for (int i = 0; i < size; i++) {
+                logService.log("u" + (i % 1000), ACTIONS[i % ACTIONS.length], "e" + (i % entities), "detalhe " + i);
+            }
+        }
+    }
+
+    @Threads(1)
+    public static class SingleThread extends LogServiceBenchmark {
+    }
+
+    @Threads(8)
+    public static class Contended extends LogServiceBenchmark {
+    }
+
+    @Benchmark
+    public void log(Data d) {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        d.logService.log("u" + r.nextInt(1000), ACTIONS[r.nextInt(ACTIONS.length)], "e" + r.nextInt(d.entities), "detalhe");
+    }
+
+    @Benchmark
+    public List<LogService.LogEntry> getEntriesForEntity(Data d) {
+        return d.logService.getEntriesForEntity("e" + ThreadLocalRandom.current().nextInt(d.entities));
+    }
+}
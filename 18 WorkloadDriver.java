@@ -0,0 +1,373 @@
+package com.projectmanager.benchmark;
+
+import com.projectmanager.model.Project;
+import com.projectmanager.model.Task;
+import com.projectmanager.model.Team;
+import com.projectmanager.model.User;
+import com.projectmanager.model.UserProfile;
+import com.projectmanager.repository.TaskRepository;
+import com.projectmanager.repository.UserRepository;
+import com.projectmanager.service.BusinessRuleException;
+import com.projectmanager.service.LogService;
+import com.projectmanager.service.ProjectService;
+import com.projectmanager.service.TaskService;
+import com.projectmanager.service.TeamService;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Gerador de carga sem console: executa misturas de operações (criar projeto, adicionar
+ * membro, iniciar tarefa, ...) pelos mesmos serviços usados pelas views (ProjectService,
+ * TeamService, TaskService), com N threads concorrentes, e reporta vazão e latência
+ * p50/p99/p999 por tipo de operação.
+ *
+ * Uso: WorkloadDriver [--threads=8] [--ops=100000] [--users=200] [--seed=42]
+ *                     [--mix=CREATE_TASK=30,START_TASK=20,...] [--script=arquivo]
+ *
+ * Sem --script cada operação é sorteada pelos pesos de --mix (ausentes usam o peso padrão).
+ * Com --script, o arquivo (uma operação por linha, # para comentários) é repetido em ordem
+ * por cada thread. Cada thread trabalha nos projetos/equipes/tarefas que criou, mas todas
+ * disputam os mesmos repositórios e usuários. Não há sessão: as checagens de permissão do
+ * AuthenticationService (feitas nas views) ficam de fora.
+ */
+public class WorkloadDriver {
+    public enum Operation {
+        CREATE_PROJECT(5),
+        CREATE_TEAM(5),
+        ADD_MEMBER(10),
+        CREATE_TASK(25),
+        START_TASK(20),
+        COMPLETE_TASK(15),
+        EDIT_TASK(10),
+        CANCEL_PROJECT(1),
+        REACTIVATE_PROJECT(1),
+        VIEW_TASK(8);
+
+        final int defaultWeight;
+
+        Operation(int defaultWeight) {
+            this.defaultWeight = defaultWeight;
+        }
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final int threads;
+    private final int opsPerThread;
+    private final long seed;
+    private final int[] weights = new int[OPERATIONS.length];
+    private final List<Operation> script;
+
+    private final ProjectService projectService = ProjectService.getInstance();
+    private final TeamService teamService = TeamService.getInstance();
+    private final TaskService taskService = TaskService.getInstance();
+    private final TaskRepository taskRepo = TaskRepository.getInstance();
+    private final UserRepository userRepo = UserRepository.getInstance();
+    private final LogService logService = LogService.getInstance();
+    private final List<User> users = new ArrayList<>();
+
+    public WorkloadDriver(int threads, int opsPerThread, long seed, Map<Operation, Integer> mix, List<Operation> script) {
+        if (threads <= 0 || opsPerThread <= 0) throw new IllegalArgumentException("threads e ops devem ser positivos");
+        this.threads = threads;
+        this.opsPerThread = opsPerThread;
+        this.seed = seed;
+        for (Operation op : OPERATIONS) weights[op.ordinal()] = mix.getOrDefault(op, op.defaultWeight);
+        this.script = script;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) throw new IllegalArgumentException("argumento inválido: " + arg);
+            opts.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        if (opts.containsKey("mix")) {
+            for (String pair : opts.get("mix").split(",")) {
+                String[] kv = pair.split("=");
+                mix.put(Operation.valueOf(kv[0].trim()), Integer.parseInt(kv[1].trim()));
+            }
+        }
+        List<Operation> script = opts.containsKey("script") ? readScript(opts.get("script")) : null;
+
+        WorkloadDriver driver = new WorkloadDriver(
+                Integer.parseInt(opts.getOrDefault("threads", "8")),
+                Integer.parseInt(opts.getOrDefault("ops", "100000")),
+                Long.parseLong(opts.getOrDefault("seed", "42")),
+                mix, script);
+        driver.createUsers(Integer.parseInt(opts.getOrDefault("users", "200")));
+        driver.run().print(System.out);
+        LogService.getInstance().shutdown();
+    }
+
+    private static List<Operation> readScript(String file) throws IOException {
+        List<Operation> ops = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) ops.add(Operation.valueOf(line));
+        }
+        if (ops.isEmpty()) throw new IllegalArgumentException("script sem operações: " + file);
+        return ops;
+    }
+
+    /** Cadastra usuários sintéticos (1 em cada 10 administrador, o resto colaborador). */
+    public void createUsers(int count) {
+        for (int i = 0; i < count; i++) {
+            UserProfile perfil = i % 10 == 0 ? UserProfile.ADMINISTRADOR : UserProfile.COLABORADOR;
+            User u = new User("Usuário " + i, syntheticCpf(seed * 1_000_003L + i), "carga" + i + "@exemplo.com",
+                    "Cargo", "carga" + seed + "_" + i, "senha123", perfil);
+            userRepo.save(u);
+            users.add(u);
+        }
+    }
+
+    /** CPF de 11 dígitos com dígitos verificadores válidos, derivado de n. */
+    private static String syntheticCpf(long n) {
+        int[] d = new int[11];
+        long base = Math.floorMod(n, 1_000_000_000L);
+        for (int i = 8; i >= 0; i--) {
+            d[i] = (int) (base % 10);
+            base /= 10;
+        }
+        for (int k = 9; k <= 10; k++) {
+            int sum = 0;
+            for (int i = 0; i < k; i++) sum += d[i] * (k + 1 - i);
+            int r = (sum * 10) % 11;
+            d[k] = r == 10 ? 0 : r;
+        }
+        StringBuilder sb = new StringBuilder(11);
+        for (int x : d) sb.append(x);
+        return sb.toString();
+    }
+
+    public Result run() throws InterruptedException {
+        if (users.isEmpty()) throw new IllegalStateException("nenhum usuário: chame createUsers antes");
+        Worker[] workers = new Worker[threads];
+        Thread[] ts = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(new Random(seed + i));
+            ts[i] = new Thread(workers[i], "carga-" + i);
+        }
+        long start = System.nanoTime();
+        for (Thread t : ts) t.start();
+        for (Thread t : ts) t.join();
+        long elapsed = System.nanoTime() - start;
+
+        Result result = new Result(elapsed);
+        for (Worker w : workers) result.merge(w);
+        return result;
+    }
+
+    private final class Worker implements Runnable {
+        final Random random;
+        // ids criados por esta thread
+        final List<String> projects = new ArrayList<>();
+        final List<String> teams = new ArrayList<>();
+        final List<String> tasks = new ArrayList<>();
+        final Histogram[] latencies = new Histogram[OPERATIONS.length];
+        final long[] rejected = new long[OPERATIONS.length];
+        final int totalWeight;
+
+        Worker(Random random) {
+            this.random = random;
+            for (int i = 0; i < latencies.length; i++) latencies[i] = new Histogram();
+            int sum = 0;
+            for (int w : weights) sum += w;
+            this.totalWeight = sum;
+        }
+
+        @Override
+        public void run() {
+            // alvo inicial, fora da medição, para que nenhuma operação fique sem entidade
+            createProject(randomUser());
+            createTeam(randomUser());
+            createTask(randomUser());
+            for (int i = 0; i < opsPerThread; i++) {
+                Operation op = script != null ? script.get(i % script.size()) : pick();
+                User actor = randomUser();
+                long t0 = System.nanoTime();
+                boolean ok = execute(op, actor);
+                latencies[op.ordinal()].record(System.nanoTime() - t0);
+                if (!ok) rejected[op.ordinal()]++;
+            }
+        }
+
+        private Operation pick() {
+            int r = random.nextInt(totalWeight);
+            for (Operation op : OPERATIONS) {
+                r -= weights[op.ordinal()];
+                if (r < 0) return op;
+            }
+            return OPERATIONS[OPERATIONS.length - 1];
+        }
+
+        private User randomUser() {
+            return users.get(random.nextInt(users.size()));
+        }
+
+        private <T> T any(List<T> list) {
+            return list.get(random.nextInt(list.size()));
+        }
+
+        /** Executa a operação; false quando uma regra de negócio a recusou. */
+        private boolean execute(Operation op, User actor) {
+            try {
+                switch (op) {
+                    case CREATE_PROJECT: createProject(actor); break;
+                    case CREATE_TEAM: createTeam(actor); break;
+                    case ADD_MEMBER: teamService.addMember(actor.getId(), any(teams), randomUser().getId()); break;
+                    case CREATE_TASK: createTask(actor); break;
+                    case START_TASK: taskService.startTask(any(tasks), actor.getId()); break;
+                    case COMPLETE_TASK: completeTask(); break;
+                    case EDIT_TASK: editTask(actor); break;
+                    case CANCEL_PROJECT: projectService.cancelProject(actor.getId(), any(projects)); break;
+                    case REACTIVATE_PROJECT: projectService.reactivateProject(actor.getId(), any(projects)); break;
+                    case VIEW_TASK: viewTask(); break;
+                    default: throw new IllegalStateException("operação desconhecida: " + op);
+                }
+                return true;
+            } catch (BusinessRuleException e) {
+                return false;
+            }
+        }
+
+        private void createProject(User actor) {
+            LocalDate inicio = LocalDate.now();
+            Project project = projectService.createProject(actor.getId(), "Projeto " + random.nextInt(), "Carga sintética",
+                    inicio, inicio.plusDays(30), actor.getId());
+            projects.add(project.getId());
+        }
+
+        private void createTeam(User actor) {
+            Team team = teamService.createTeam(actor.getId(), "Equipe " + random.nextInt(), "Carga sintética", actor.getId());
+            teams.add(team.getId());
+        }
+
+        private void createTask(User actor) {
+            Task task = taskService.createTask(actor.getId(), "Tarefa " + random.nextInt(), "Carga sintética",
+                    any(projects), any(teams), LocalDateTime.now().plusDays(1 + random.nextInt(30)));
+            tasks.add(task.getId());
+        }
+
+        // como na TaskView, quem conclui informa o próprio id; aqui, o responsável atual
+        private void completeTask() {
+            String taskId = any(tasks);
+            String responsavel = taskRepo.findById(taskId).map(Task::getResponsavelId).orElse(null);
+            taskService.completeTask(taskId, responsavel);
+        }
+
+        private void editTask(User actor) {
+            taskService.editTask(actor.getId(), any(tasks), null, "Editada por " + actor.getId(),
+                    LocalDateTime.now().plusDays(1 + random.nextInt(30)));
+        }
+
+        // leitura de TaskView.verTarefa: tarefa + histórico
+        private void viewTask() {
+            Task task = taskRepo.findById(any(tasks))
+                    .orElseThrow(() -> new BusinessRuleException("Tarefa não encontrada!"));
+            logService.getEntriesForEntity(task.getId());
+        }
+    }
+
+    /** Resultado agregado de todas as threads. */
+    public static final class Result {
+        private final long elapsedNanos;
+        private final Histogram[] latencies = new Histogram[OPERATIONS.length];
+        private final long[] rejected = new long[OPERATIONS.length];
+
+        Result(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+            for (int i = 0; i < latencies.length; i++) latencies[i] = new Histogram();
+        }
+
+        void merge(Worker w) {
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i].add(w.latencies[i]);
+                rejected[i] += w.rejected[i];
+            }
+        }
+
+        public void print(PrintStream out) {
+            double seconds = elapsedNanos / 1e9;
+            Histogram total = new Histogram();
+            out.printf("%-20s %10s %10s %12s %10s %10s %10s%n", "operação", "total", "recusadas", "ops/s", "p50(µs)", "p99(µs)", "p999(µs)");
+            for (Operation op : OPERATIONS) {
+                Histogram h = latencies[op.ordinal()];
+                if (h.count() == 0) continue;
+                total.add(h);
+                printLine(out, op.name(), h, rejected[op.ordinal()], seconds);
+            }
+            long totalRejected = 0;
+            for (long r : rejected) totalRejected += r;
+            printLine(out, "TOTAL", total, totalRejected, seconds);
+            out.printf("tempo: %.2f s%n", seconds);
+        }
+
+        private static void printLine(PrintStream out, String name, Histogram h, long rejected, double seconds) {
+            out.printf("%-20s %10d %10d %12.0f %10.1f %10.1f %10.1f%n", name, h.count(), rejected, h.count() / seconds,
+                    h.percentile(0.50) / 1e3, h.percentile(0.99) / 1e3, h.percentile(0.999) / 1e3);
+        }
+    }
+
+    /**
+     * Histograma log-linear de latências em ns: valores até 127 exatos, acima disso
+     * 64 faixas por potência de 2 (erro relativo < 1,6%). Um por thread, somados no fim.
+     */
+    static final class Histogram {
+        private static final int SUB_BUCKETS = 64;
+        private final long[] counts = new long[2 * SUB_BUCKETS + 57 * SUB_BUCKETS];
+        private long count;
+
+        void record(long nanos) {
+            counts[index(Math.max(0, nanos))]++;
+            count++;
+        }
+
+        void add(Histogram other) {
+            for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+            count += other.count;
+        }
+
+        long count() {
+            return count;
+        }
+
+        /** Limite inferior da faixa que contém o percentil p (0..1). */
+        long percentile(double p) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(p * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return lowerBound(i);
+            }
+            return lowerBound(counts.length - 1);
+        }
+
+        private static int index(long v) {
+            if (v < 2 * SUB_BUCKETS) return (int) v;
+            int exp = 63 - Long.numberOfLeadingZeros(v);
+            int shift = exp - 6;
+            return 2 * SUB_BUCKETS + (exp - 7) * SUB_BUCKETS + (int) ((v >>> shift) - SUB_BUCKETS);
+        }
+
+        private static long lowerBound(int index) {
+            if (index < 2 * SUB_BUCKETS) return index;
+            int k = index - 2 * SUB_BUCKETS;
+            int exp = k / SUB_BUCKETS + 7;
+            return (long) (k % SUB_BUCKETS + SUB_BUCKETS) << (exp - 6);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.projectmanager.service;
+
+/**
+ * Operação recusada por uma regra de negócio (entidade inexistente, projeto cancelado,
+ * colaborador já em outra equipe, ...). A mensagem é própria para exibir ao usuário.
+ */
+public class BusinessRuleException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public BusinessRuleException(String message) {
+        super(message);
+    }
+}
@@ -1,47 +1,207 @@
 package com.projectmanager.repository;
 
 import com.projectmanager.model.Team;
+import com.projectmanager.service.LogService;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Repositório simples em memória para Team.
+ * Mantém um índice reverso membro -> equipes, atualizado em save/delete.
+ * Leituras não bloqueiam; escritas travam apenas o id alterado (ver EntityStore).
+ * Com projectmanager.data.dir definido, cada escrita é registrada num WAL e só
+ * retorna depois de estar em disco (ver WriteAheadLog).
  */
 public class TeamRepository {
-    private static TeamRepository instance;
-    private final List<Team> teams = new ArrayList<>();
+    private final EntityStore<Team> teams = new EntityStore<>();
+    // índice reverso: userId -> ids das equipes das quais é membro
+    private final EntityStore.Index teamsByMember = new EntityStore.Index();
 
-    private TeamRepository() {}
+    private final WriteAheadLog wal = WriteAheadLog.open("teams");
 
-    public static synchronized TeamRepository getInstance() {
-        if (instance == null) instance = new TeamRepository();
-        return instance;
+    private TeamRepository() {
+        // reconstrói o estado a partir do WAL (no-op se a persistência estiver desligada)
+        wal.replay(new WriteAheadLog.Replayer<Team>() {
+            @Override
+            public void onSave(String id, Team entity) {
+                applySave(entity);
+            }
+
+            @Override
+            public void onDelete(String id) {
+                applyDelete(id);
+            }
+        });
     }
 
-    public synchronized void save(Team team) {
-        this.teams.removeIf(t -> t.getId().equals(team.getId()));
-        this.teams.add(team);
+    private static class Holder {
+        static final TeamRepository INSTANCE = new TeamRepository();
     }
 
-    public synchronized Optional<Team> findById(String id) {
-        return teams.stream().filter(t -> t.getId().equals(id)).findFirst();
+    public static TeamRepository getInstance() {
+        return Holder.INSTANCE;
     }
 
-    public synchronized List<Team> findAll() {
-        return new ArrayList<>(teams);
+    public void save(Team team) {
+        long position;
+        ReentrantLock lock = teams.lockFor(team.getId());
+        lock.lock();
+        try {
+            // grava no WAL antes de alterar a memória
+            position = wal.appendSave(team.getId(), team);
+            applySave(team);
+        } finally {
+            lock.unlock();
+        }
+        wal.awaitDurable(position);
+    }
+
+    /**
+     * Salva o lote de forma atômica: as faixas de todos os ids são travadas uma única vez
+     * e o lote entra no WAL como um só registro (na recuperação vale tudo ou nada).
+     * Leitores sem lock podem ver o lote pela metade enquanto ele é aplicado.
+     * Depois de durável, o lote é auditado numa única chamada (LogService.logAll, uma
+     * entrada por id com a ação e os detalhes dados).
+     */
+    public void saveAll(Collection<Team> batch, String userId, String action, String details) {
+        if (batch.isEmpty()) return;
+        List<String> ids = new ArrayList<>(batch.size());
+        for (Team team : batch) ids.add(team.getId());
+        long position;
+        List<ReentrantLock> held = teams.lockAll(ids);
+        try {
+            // serializa tudo antes de aplicar: uma falha aqui não deixa nada aplicado
+            WriteAheadLog.Batch record = wal.newBatch();
+            for (Team team : batch) record.save(team.getId(), team);
+            position = wal.appendBatch(record);
+            for (Team team : batch) applySave(team);
+        } finally {
+            teams.unlockAll(held);
+        }
+        wal.awaitDurable(position);
+        LogService.getInstance().logAll(userId, action, ids, details);
     }
 
-    public synchronized void delete(String id) {
-        teams.removeIf(t -> t.getId().equals(id));
+    public Optional<Team> findById(String id) {
+        return Optional.ofNullable(teams.get(id));
     }
 
-    public synchronized List<Team> findByMemberId(String userId) {
-        List<Team> result = new ArrayList<>();
-        for (Team t : teams) {
-            if (t.isMember(userId)) result.add(t);
+    /** Busca vários ids de uma vez, na ordem pedida; ids inexistentes ficam de fora. */
+    public List<Team> findAllById(Collection<String> ids) {
+        List<Team> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Team value = teams.get(id);
+            if (value != null) result.add(value);
         }
         return result;
     }
+
+    public List<Team> findAll() {
+        return teams.values();
+    }
+
+    public int count() {
+        return teams.size();
+    }
+
+    /** Percorre sem copiar a tabela (ordem de inserção, fracamente consistente). */
+    public Stream<Team> stream() {
+        return teams.stream();
+    }
+
+    public void forEach(Consumer<? super Team> action) {
+        teams.stream().forEach(action);
+    }
+
+    public List<Team> findPage(int offset, int limit) {
+        return teams.page(offset, limit);
+    }
+
+    /**
+     * Grava um snapshot compacto do repositório e descarta o WAL que ele cobre,
+     * bloqueando as escritas só durante a troca de geração do WAL (no-op se a
+     * persistência estiver desligada).
+     */
+    public void checkpoint() {
+        wal.checkpoint(teams::withAllLocked, sink -> teams.forEachLocked(sink));
+    }
+
+    /** Notificado a cada save/delete; recebe de imediato as entidades já existentes. */
+    public void addListener(RepositoryListener<Team> listener) {
+        teams.addListener(listener);
+    }
+
+    /**
+     * Remove os ids de forma atômica (um único lock e um único registro de WAL para o
+     * lote) e devolve quantos existiam. Os removidos são auditados como em saveAll.
+     */
+    public int deleteAll(Collection<String> ids, String userId, String action, String details) {
+        if (ids.isEmpty()) return 0;
+        long position;
+        List<String> removed = new ArrayList<>();
+        List<ReentrantLock> held = teams.lockAll(ids);
+        try {
+            WriteAheadLog.Batch record = wal.newBatch();
+            for (String id : ids) {
+                if (teams.get(id) != null) record.delete(id);
+            }
+            position = wal.appendBatch(record);
+            for (String id : ids) {
+                if (applyDelete(id) != null) removed.add(id);
+            }
+        } finally {
+            teams.unlockAll(held);
+        }
+        wal.awaitDurable(position);
+        LogService.getInstance().logAll(userId, action, removed, details);
+        return removed.size();
+    }
+
+    public void delete(String id) {
+        long position;
+        ReentrantLock lock = teams.lockFor(id);
+        lock.lock();
+        try {
+            if (teams.get(id) == null) return;
+            position = wal.appendDelete(id);
+            applyDelete(id);
+        } finally {
+            lock.unlock();
+        }
+        wal.awaitDurable(position);
+    }
+
+    public List<Team> findByMemberId(String userId) {
+        return teamsByMember.resolve(userId, teams::get);
+    }
+
+    /**
+     * Verifica em O(1) se o usuário já pertence a alguma equipe
+     * (regra: colaborador só pode estar em 1 equipe).
+     */
+    public boolean isMemberOfAnyTeam(String userId) {
+        return teamsByMember.containsKey(userId);
+    }
+
+    /** Altera memória, índices e listeners. Exige o lock do id. */
+    private void applySave(Team team) {
+        teams.put(team.getId(), team);
+        teamsByMember.putAll(team.getId(), new HashSet<>(team.getMemberIds()));
+        teams.fireSave(team);
+    }
+
+    private Team applyDelete(String id) {
+        Team removed = teams.remove(id);
+        if (removed == null) return null;
+        teamsByMember.remove(id);
+        teams.fireDelete(id, removed);
+        return removed;
+    }
 }
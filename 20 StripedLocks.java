@@ -0,0 +1,66 @@
+package com.projectmanager.service;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Locks por id compartilhados pelos serviços, para que checagem e alteração de uma regra
+ * aconteçam juntas (ex.: cancelar um projeto e iniciar uma tarefa dele). Os ids caem em
+ * faixas fixas; várias faixas são travadas sempre em ordem crescente, sem deadlock.
+ *
+ * Uso: {@code Held held = locks.lock(taskId, projectId); try { ... } finally { held.unlock(); }}
+ */
+final class StripedLocks {
+    private static final int STRIPES = 256;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    private StripedLocks() {
+        for (int i = 0; i < STRIPES; i++) locks[i] = new ReentrantLock();
+    }
+
+    private static class Holder {
+        static final StripedLocks INSTANCE = new StripedLocks();
+    }
+
+    static StripedLocks getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /** Locks travados; unlock() solta todos. */
+    static final class Held {
+        private final ReentrantLock[] held;
+
+        private Held(ReentrantLock[] held) {
+            this.held = held;
+        }
+
+        void unlock() {
+            for (int i = held.length - 1; i >= 0; i--) held[i].unlock();
+        }
+    }
+
+    /** Trava as faixas dos ids informados (nulos são ignorados). */
+    Held lock(String... ids) {
+        int[] stripes = new int[ids.length];
+        int n = 0;
+        for (String id : ids) {
+            if (id != null) stripes[n++] = stripe(id);
+        }
+        Arrays.sort(stripes, 0, n);
+        ReentrantLock[] held = new ReentrantLock[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && stripes[i] == stripes[i - 1]) continue;
+            ReentrantLock lock = locks[stripes[i]];
+            lock.lock();
+            held[count++] = lock;
+        }
+        return new Held(Arrays.copyOf(held, count));
+    }
+
+    private static int stripe(String id) {
+        int h = id.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
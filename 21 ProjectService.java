@@ -0,0 +1,111 @@
+package com.projectmanager.service;
+
+import com.projectmanager.model.Project;
+import com.projectmanager.model.ProjectStatus;
+import com.projectmanager.repository.ProjectRepository;
+import com.projectmanager.repository.TaskRepository;
+
+import java.time.LocalDate;
+
+/**
+ * Regras de negócio de projetos, sem I/O de console — usadas pela ProjectView e por
+ * clientes programáticos (carga em lote, driver de carga).
+ * Os métodos são thread-safe: a checagem e a alteração de cada projeto acontecem sob o
+ * lock do id (ver StripedLocks). Regras violadas lançam BusinessRuleException.
+ * Permissões da sessão (AuthenticationService) continuam sendo checadas pelas views.
+ * Cancelar/reativar propaga o estado para todas as tarefas do projeto num único lote —
+ * o TaskRepository acompanha o save do projeto (ver TaskRepository#setProjectCanceled) —
+ * registrado numa só entrada de auditoria.
+ */
+public class ProjectService {
+    private final ProjectRepository projectRepo;
+    private final TaskRepository taskRepo;
+    private final LogService logService;
+    private final StripedLocks locks;
+
+    private ProjectService() {
+        this.projectRepo = ProjectRepository.getInstance();
+        this.taskRepo = TaskRepository.getInstance();
+        this.logService = LogService.getInstance();
+        this.locks = StripedLocks.getInstance();
+    }
+
+    private static class Holder {
+        static final ProjectService INSTANCE = new ProjectService();
+    }
+
+    public static ProjectService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public Project createProject(String actorId, String nome, String descricao,
+                                 LocalDate dataInicio, LocalDate dataTerminoPrevista, String gerenteId) {
+        if (gerenteId == null || gerenteId.isEmpty()) throw new BusinessRuleException("Gerente é obrigatório!");
+
+        Project project = new Project(nome, descricao, dataInicio, dataTerminoPrevista, gerenteId);
+        project.setStatus(ProjectStatus.PLANEJADO);
+        projectRepo.save(project);
+
+        logService.log(actorId, "CREATE_PROJECT", project.getId(), "Projeto criado: " + nome + " gerente=" + gerenteId);
+        return project;
+    }
+
+    /** Altera os campos informados (null mantém o valor atual). */
+    public Project editProject(String actorId, String projectId, String nome, String descricao,
+                               LocalDate dataInicio, LocalDate dataTerminoPrevista) {
+        StripedLocks.Held held = locks.lock(projectId);
+        try {
+            Project p = require(projectId);
+            if (p.isCanceled()) throw new BusinessRuleException("Projeto cancelado — não pode ser editado.");
+
+            if (nome != null) p.setNome(nome);
+            if (descricao != null) p.setDescricao(descricao);
+            if (dataInicio != null) p.setDataInicio(dataInicio);
+            if (dataTerminoPrevista != null) p.setDataTerminoPrevista(dataTerminoPrevista);
+            projectRepo.save(p);
+            logService.log(actorId, "EDIT_PROJECT", p.getId(), "Projeto editado");
+            return p;
+        } finally {
+            held.unlock();
+        }
+    }
+
+    public Project cancelProject(String actorId, String projectId) {
+        StripedLocks.Held held = locks.lock(projectId);
+        try {
+            Project p = require(projectId);
+            if (p.isCanceled()) throw new BusinessRuleException("Projeto já está cancelado.");
+
+            p.markAsCanceled();
+            // o save propaga o cancelamento às tarefas; as ações sobre tarefas seguram o
+            // mesmo lock, então nenhuma passa no meio da cascata
+            projectRepo.save(p);
+            int tasks = taskRepo.countByProjectId(p.getId());
+            logService.log(actorId, "CANCEL_PROJECT", p.getId(), "Projeto cancelado; " + tasks + " tarefa(s) bloqueada(s)");
+            return p;
+        } finally {
+            held.unlock();
+        }
+    }
+
+    public Project reactivateProject(String actorId, String projectId) {
+        StripedLocks.Held held = locks.lock(projectId);
+        try {
+            Project p = require(projectId);
+            if (!p.isCanceled()) throw new BusinessRuleException("Projeto não está cancelado.");
+
+            p.reactivate();
+            projectRepo.save(p);
+            int tasks = taskRepo.countByProjectId(p.getId());
+            logService.log(actorId, "REACTIVATE_PROJECT", p.getId(), "Projeto reativado; " + tasks + " tarefa(s) liberada(s)");
+            return p;
+        } finally {
+            held.unlock();
+        }
+    }
+
+    private Project require(String projectId) {
+        return projectRepo.findById(projectId)
+                .orElseThrow(() -> new BusinessRuleException("Projeto não encontrado!"));
+    }
+}
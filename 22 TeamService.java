@@ -0,0 +1,127 @@
+package com.projectmanager.service;
+
+import com.projectmanager.model.Team;
+import com.projectmanager.model.User;
+import com.projectmanager.model.UserProfile;
+import com.projectmanager.repository.TeamRepository;
+import com.projectmanager.repository.UserRepository;
+
+/**
+ * Regras de negócio de equipes, sem I/O de console:
+ * - Colaborador só pode estar em 1 equipe; Gerente/Administrador em várias.
+ * - O criador não pode ser removido como membro.
+ * Thread-safe: adicionar/remover membro trava a equipe e o usuário, então dois pedidos
+ * simultâneos não colocam o mesmo colaborador em duas equipes.
+ * Permissões da sessão (criador, ADMIN) continuam sendo checadas pela TeamView.
+ */
+public class TeamService {
+    private final TeamRepository teamRepo;
+    private final UserRepository userRepo;
+    private final LogService logService;
+    private final StripedLocks locks;
+
+    private TeamService() {
+        this.teamRepo = TeamRepository.getInstance();
+        this.userRepo = UserRepository.getInstance();
+        this.logService = LogService.getInstance();
+        this.locks = StripedLocks.getInstance();
+    }
+
+    private static class Holder {
+        static final TeamService INSTANCE = new TeamService();
+    }
+
+    public static TeamService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public Team createTeam(String actorId, String nome, String descricao, String criadorId) {
+        Team team = new Team(nome, descricao, criadorId);
+        teamRepo.save(team);
+        logService.log(actorId, "CREATE_TEAM", team.getId(), "Equipe criada: " + nome);
+        return team;
+    }
+
+    /** Altera os campos informados (null mantém o valor atual). */
+    public Team editTeam(String actorId, String teamId, String nome, String descricao) {
+        StripedLocks.Held held = locks.lock(teamId);
+        try {
+            Team t = require(teamId);
+            if (nome != null) t.setNome(nome);
+            if (descricao != null) t.setDescricao(descricao);
+            teamRepo.save(t);
+            logService.log(actorId, "EDIT_TEAM", t.getId(), "Equipe editada");
+            return t;
+        } finally {
+            held.unlock();
+        }
+    }
+
+    public Team addMember(String actorId, String teamId, String userId) {
+        StripedLocks.Held held = locks.lock(teamId, userId);
+        try {
+            Team team = require(teamId);
+            User user = userRepo.findById(userId)
+                    .orElseThrow(() -> new BusinessRuleException("Usuário não encontrado!"));
+
+            if (user.getPerfil() == UserProfile.COLABORADOR && teamRepo.isMemberOfAnyTeam(userId)) {
+                throw new BusinessRuleException("Usuário é Colaborador e já pertence a uma equipe. Remova-o da outra equipe primeiro.");
+            }
+            if (!team.addMember(userId)) throw new BusinessRuleException("Usuário já é membro desta equipe.");
+
+            teamRepo.save(team);
+            logService.log(actorId, "ADD_TEAM_MEMBER", team.getId(), "adicionado membro=" + userId);
+            return team;
+        } finally {
+            held.unlock();
+        }
+    }
+
+    /**
+     * Confere se o usuário pode sair da equipe (não é o criador), sem removê-lo — a view
+     * recusa antes de checar as permissões da sessão. removeMember confere de novo.
+     */
+    public void checkRemovable(String teamId, String userId) {
+        requireNotCreator(require(teamId), userId);
+    }
+
+    public Team removeMember(String actorId, String teamId, String userId) {
+        StripedLocks.Held held = locks.lock(teamId, userId);
+        try {
+            Team team = require(teamId);
+            requireNotCreator(team, userId);
+            if (!team.removeMember(userId)) throw new BusinessRuleException("Usuário não é membro desta equipe.");
+
+            teamRepo.save(team);
+            logService.log(actorId, "REMOVE_TEAM_MEMBER", team.getId(), "removido membro=" + userId);
+            return team;
+        } finally {
+            held.unlock();
+        }
+    }
+
+    /** Inverte o estado ativo/inativo da equipe. */
+    public Team toggleActive(String actorId, String teamId) {
+        StripedLocks.Held held = locks.lock(teamId);
+        try {
+            Team t = require(teamId);
+            t.setAtivo(!t.isAtivo());
+            teamRepo.save(t);
+            logService.log(actorId, "TOGGLE_TEAM_ACTIVE", t.getId(), "ativo=" + t.isAtivo());
+            return t;
+        } finally {
+            held.unlock();
+        }
+    }
+
+    private static void requireNotCreator(Team team, String userId) {
+        if (userId.equals(team.getCriadorId())) {
+            throw new BusinessRuleException("Não é permitido remover o criador da equipe.");
+        }
+    }
+
+    private Team require(String teamId) {
+        return teamRepo.findById(teamId)
+                .orElseThrow(() -> new BusinessRuleException("Equipe não encontrada!"));
+    }
+}
@@ -0,0 +1,171 @@
+package com.projectmanager.service;
+
+import com.projectmanager.model.Project;
+import com.projectmanager.model.Task;
+import com.projectmanager.repository.ProjectRepository;
+import com.projectmanager.repository.TaskRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Regras de negócio de tarefas, sem I/O de console:
+ * - projeto cancelado bloqueia criar, iniciar, concluir e editar suas tarefas
+ * - campos obrigatórios precisam estar preenchidos para iniciar
+ * - só o responsável pode concluir
+ * Thread-safe: cada ação trava a tarefa e o projeto dela, então não se intercala com
+ * o cancelamento do projeto (ver ProjectService). Regras violadas lançam BusinessRuleException.
+ * O estado do projeto vem do flag por tarefa do TaskRepository (derivado dos projetos),
+ * sem consultar o ProjectRepository nas ações sobre tarefas existentes.
+ */
+public class TaskService {
+    private final TaskRepository taskRepo;
+    private final ProjectRepository projectRepo;
+    private final LogService logService;
+    private final StripedLocks locks;
+    private final RepositoryCache cache;
+
+    private TaskService() {
+        this.taskRepo = TaskRepository.getInstance();
+        this.projectRepo = ProjectRepository.getInstance();
+        this.logService = LogService.getInstance();
+        this.locks = StripedLocks.getInstance();
+        this.cache = RepositoryCache.getInstance();
+    }
+
+    private static class Holder {
+        static final TaskService INSTANCE = new TaskService();
+    }
+
+    public static TaskService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Cria a tarefa (vencimento opcional) e a vincula ao projeto. Campos obrigatórios
+     * faltando não impedem a criação — a tarefa fica PENDENTE até serem preenchidos
+     * (ver {@link Task#isCamposObrigatoriosPreenchidos()}).
+     */
+    public Task createTask(String actorId, String titulo, String descricao, String projectId, String teamId,
+                           LocalDateTime dataVencimento) {
+        StripedLocks.Held held = locks.lock(projectId);
+        try {
+            Project project = projectRepo.findById(projectId)
+                    .orElseThrow(() -> new BusinessRuleException("Projeto não encontrado!"));
+            if (project.isCanceled()) throw new BusinessRuleException("Projeto cancelado — não é permitido criar tarefas.");
+            if (cache.findTeam(teamId).isEmpty()) throw new BusinessRuleException("Equipe não encontrada!");
+
+            Task task = new Task(titulo, descricao, projectId, teamId);
+            if (dataVencimento != null) task.setDataVencimento(dataVencimento);
+            task.validateRequiredFields();
+            taskRepo.save(task);
+
+            // vincular tarefa ao projeto
+            project.addTask(task.getId());
+            projectRepo.save(project);
+
+            logService.log(actorId, "CREATE_TASK", task.getId(), "Tarefa criada em projeto=" + projectId + " equipe=" + teamId);
+            return task;
+        } finally {
+            held.unlock();
+        }
+    }
+
+    /**
+     * Confere se a tarefa pode ser iniciada (projeto ativo, campos obrigatórios), sem
+     * iniciá-la — a view recusa antes de pedir o responsável. startTask confere de novo.
+     */
+    public void checkCanStart(String taskId) {
+        String projectId = projectIdOf(taskId);
+        StripedLocks.Held held = locks.lock(taskId, projectId);
+        try {
+            requireStartable(require(taskId));
+        } finally {
+            held.unlock();
+        }
+    }
+
+    /** Inicia a tarefa com {@code userId} como responsável. */
+    public Task startTask(String taskId, String userId) {
+        String projectId = projectIdOf(taskId);
+        StripedLocks.Held held = locks.lock(taskId, projectId);
+        try {
+            Task t = require(taskId);
+            requireStartable(t);
+            if (!t.markAsStarted(userId)) {
+                throw new BusinessRuleException("Não foi possível iniciar a tarefa (status atual: " + t.getStatus().name() + ")");
+            }
+            taskRepo.save(t);
+            logService.log(userId, "START_TASK", t.getId(), "Iniciou tarefa");
+            return t;
+        } finally {
+            held.unlock();
+        }
+    }
+
+    public Task completeTask(String taskId, String userId) {
+        String projectId = projectIdOf(taskId);
+        StripedLocks.Held held = locks.lock(taskId, projectId);
+        try {
+            Task t = require(taskId);
+            requireActiveProject(taskId, "Projeto cancelado — ação proibida.");
+
+            if (userId == null || !userId.equals(t.getResponsavelId())) {
+                throw new BusinessRuleException("Apenas o responsável pela tarefa pode concluí-la!");
+            }
+            if (!t.markAsCompleted(userId)) {
+                throw new BusinessRuleException("Não foi possível concluir a tarefa (status atual: " + t.getStatus().name() + ")");
+            }
+            taskRepo.save(t);
+            logService.log(userId, "COMPLETE_TASK", t.getId(), "Concluiu tarefa");
+            return t;
+        } finally {
+            held.unlock();
+        }
+    }
+
+    /** Altera os campos informados (null mantém o valor atual). */
+    public Task editTask(String actorId, String taskId, String titulo, String descricao, LocalDateTime dataVencimento) {
+        String projectId = projectIdOf(taskId);
+        StripedLocks.Held held = locks.lock(taskId, projectId);
+        try {
+            Task t = require(taskId);
+            requireActiveProject(taskId, "Projeto cancelado — não é possível editar.");
+
+            if (titulo != null) t.setTitulo(titulo);
+            if (descricao != null) t.setDescricao(descricao);
+            if (dataVencimento != null) t.setDataVencimento(dataVencimento);
+
+            t.validateRequiredFields();
+            taskRepo.save(t);
+            logService.log(actorId, "EDIT_TASK", t.getId(), "Tarefa editada");
+            return t;
+        } finally {
+            held.unlock();
+        }
+    }
+
+    /** Projeto da tarefa, para escolher os locks; vem do cache (o vínculo não muda). */
+    private String projectIdOf(String taskId) {
+        return cache.findTask(taskId).map(Task::getProjectId)
+                .orElseThrow(() -> new BusinessRuleException("Tarefa não encontrada!"));
+    }
+
+    private Task require(String taskId) {
+        return taskRepo.findById(taskId)
+                .orElseThrow(() -> new BusinessRuleException("Tarefa não encontrada!"));
+    }
+
+    /** Exige o lock da tarefa e do projeto dela. */
+    private void requireStartable(Task t) {
+        requireActiveProject(t.getId(), "Projeto cancelado — ação proibida.");
+        t.validateRequiredFields();
+        if (!t.isCamposObrigatoriosPreenchidos()) {
+            throw new BusinessRuleException("Campos obrigatórios não preenchidos — não é possível iniciar.");
+        }
+    }
+
+    /** Exige o lock do projeto da tarefa. */
+    private void requireActiveProject(String taskId, String canceledMessage) {
+        if (taskRepo.isProjectCanceled(taskId)) throw new BusinessRuleException(canceledMessage);
+    }
+}
@@ -0,0 +1,541 @@
+package com.projectmanager.service;
+
+import com.projectmanager.model.Project;
+import com.projectmanager.model.ProjectStatus;
+import com.projectmanager.model.Task;
+import com.projectmanager.model.Team;
+import com.projectmanager.model.User;
+import com.projectmanager.model.UserProfile;
+import com.projectmanager.repository.ProjectRepository;
+import com.projectmanager.repository.TaskRepository;
+import com.projectmanager.repository.TeamRepository;
+import com.projectmanager.repository.UserRepository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Importação em lote de usuários, projetos, equipes e tarefas a partir de CSV (com
+ * cabeçalho) ou JSONL (um objeto JSON plano por linha), lendo o arquivo em streaming.
+ *
+ * O arquivo é processado em lotes de BATCH_SIZE registros, então a memória não depende
+ * do tamanho do arquivo. Em cada lote:
+ * 1. os registros são validados em paralelo com as mesmas regras de cadastro
+ *    (CPF/email válidos, perfil que o autor da importação pode gerenciar, gerente
+ *    obrigatório, projeto ativo e equipe existentes, ...);
+ * 2. as regras de unicidade (CPF, email, login) são checadas em ordem de linha, contra o
+ *    repositório e contra o que já foi aceito do próprio arquivo (e de novo, sob lock,
+ *    na gravação de cada usuário);
+ * 3. os válidos são gravados de uma vez (saveAll, atômico) e auditados numa única
+ *    chamada (o saveAll dos repositórios chama LogService.logAll, uma entrada por
+ *    registro). No caso das tarefas são duas gravações: as tarefas e depois a lista
+ *    de tarefas dos projetos, cada uma atômica, mas não as duas juntas — uma queda
+ *    entre elas deixa tarefas gravadas que ainda não aparecem na lista do projeto.
+ * Cada registro recusado vira uma linha "linha,erro" no relatório de erros.
+ *
+ * Campos esperados (nomes das colunas ou chaves JSON):
+ * - USERS: nome, cpf, email, cargo, login, senha, perfil
+ * - PROJECTS: nome, descricao, dataInicio, dataTerminoPrevista (yyyy-MM-dd), gerenteId
+ * - TEAMS: nome, descricao, criadorId
+ * - TASKS: titulo, descricao, projectId, teamId, dataVencimento (yyyy-MM-ddTHH:mm)
+ * Campos de CSV não podem conter quebras de linha.
+ */
+public class BulkImportService {
+    public enum EntityType { USERS, PROJECTS, TEAMS, TASKS }
+
+    /** Totais de uma importação; o detalhe dos erros fica no relatório. */
+    public static final class Result {
+        private long read;
+        private long imported;
+        private long rejected;
+
+        public long getRead() { return read; }
+        public long getImported() { return imported; }
+        public long getRejected() { return rejected; }
+
+        @Override
+        public String toString() {
+            return "lidos=" + read + " importados=" + imported + " recusados=" + rejected;
+        }
+    }
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final UserRepository userRepo;
+    private final ProjectRepository projectRepo;
+    private final TeamRepository teamRepo;
+    private final TaskRepository taskRepo;
+    private final LogService logService;
+    private final StripedLocks locks;
+
+    private BulkImportService() {
+        this.userRepo = UserRepository.getInstance();
+        this.projectRepo = ProjectRepository.getInstance();
+        this.teamRepo = TeamRepository.getInstance();
+        this.taskRepo = TaskRepository.getInstance();
+        this.logService = LogService.getInstance();
+        this.locks = StripedLocks.getInstance();
+    }
+
+    private static class Holder {
+        static final BulkImportService INSTANCE = new BulkImportService();
+    }
+
+    public static BulkImportService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /** Um registro do arquivo: campos lidos, e depois a entidade montada ou o erro. */
+    private static final class Row {
+        final long line;
+        final Map<String, String> fields;
+        Object entity;
+        String error;
+
+        Row(long line, Map<String, String> fields, String error) {
+            this.line = line;
+            this.fields = fields;
+            this.error = error;
+        }
+
+        String get(String name) {
+            String v = fields.get(name);
+            return v == null ? "" : v.trim();
+        }
+    }
+
+    /** Chaves únicas já aceitas neste arquivo (só usuários). */
+    private static final class Seen {
+        final Set<String> cpfs = new HashSet<>();
+        final Set<String> emails = new HashSet<>();
+        final Set<String> logins = new HashSet<>();
+    }
+
+    /**
+     * Importa o arquivo (.csv ou .jsonl) e grava o relatório de erros em {@code errorReport}.
+     * Erros de leitura do arquivo interrompem a importação; os lotes já gravados permanecem.
+     */
+    public Result importFile(EntityType type, Path input, Path errorReport, String actorId) throws IOException {
+        String name = input.getFileName().toString().toLowerCase();
+        boolean jsonl = name.endsWith(".jsonl");
+        if (!jsonl && !name.endsWith(".csv")) throw new IllegalArgumentException("formato não suportado (use .csv ou .jsonl): " + input);
+
+        Result result = new Result();
+        Seen seen = new Seen();
+        // autor desconhecido (ex.: "SYSTEM") não tem perfil: não pode criar usuários
+        UserProfile actorProfile = userRepo.findById(actorId).map(User::getPerfil).orElse(null);
+        try (BufferedReader in = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             BufferedWriter report = Files.newBufferedWriter(errorReport, StandardCharsets.UTF_8)) {
+            report.write("linha,erro\n");
+            List<String> header = null;
+            List<Row> batch = new ArrayList<>(BATCH_SIZE);
+            String line;
+            long lineNo = 0;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+                if (!jsonl && header == null) {
+                    header = parseCsvLine(line);
+                    continue;
+                }
+                batch.add(jsonl ? parseJsonRow(lineNo, line) : parseCsvRow(lineNo, line, header));
+                if (batch.size() == BATCH_SIZE) {
+                    processBatch(type, batch, seen, report, result, actorId, actorProfile, input.getFileName().toString());
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) processBatch(type, batch, seen, report, result, actorId, actorProfile, input.getFileName().toString());
+        }
+        return result;
+    }
+
+    private void processBatch(EntityType type, List<Row> batch, Seen seen, BufferedWriter report,
+                              Result result, String actorId, UserProfile actorProfile, String fileName) throws IOException {
+        // 1. validação sem estado compartilhado, em paralelo
+        batch.parallelStream().forEach(row -> {
+            if (row.error != null) return;
+            try {
+                row.entity = build(type, row, actorProfile);
+            } catch (BusinessRuleException e) {
+                row.error = e.getMessage();
+            }
+        });
+        // 2. unicidade, em ordem de linha
+        if (type == EntityType.USERS) {
+            for (Row row : batch) {
+                if (row.error == null) row.error = checkUnique((User) row.entity, seen);
+            }
+        }
+        // 3. gravação do lote, auditada pelos próprios repositórios
+        String details = "Importado de " + fileName
+                + " (lote das linhas " + batch.get(0).line + "-" + batch.get(batch.size() - 1).line + ")";
+        int imported = write(type, batch, actorId, details);
+
+        for (Row row : batch) {
+            if (row.error == null) continue;
+            report.write(row.line + "," + csvQuote(row.error) + "\n");
+        }
+        result.read += batch.size();
+        result.imported += imported;
+        result.rejected += batch.size() - imported;
+    }
+
+    private Object build(EntityType type, Row row, UserProfile actorProfile) {
+        switch (type) {
+            case USERS: return buildUser(row, actorProfile);
+            case PROJECTS: return buildProject(row);
+            case TEAMS: return buildTeam(row);
+            case TASKS: return buildTask(row);
+            default: throw new IllegalStateException("tipo desconhecido: " + type);
+        }
+    }
+
+    // mesmas regras de UserView.cadastrarUsuario (exceto unicidade, ver checkUnique)
+    private User buildUser(Row row, UserProfile actorProfile) {
+        String nome = row.get("nome");
+        if (nome.isEmpty()) throw new BusinessRuleException("Nome é obrigatório!");
+        String cpf = row.get("cpf");
+        if (!User.isValidCPF(cpf)) throw new BusinessRuleException("CPF inválido!");
+        cpf = User.formatCPF(cpf);
+        String email = row.get("email");
+        if (!User.isValidEmail(email)) throw new BusinessRuleException("Email inválido!");
+        String cargo = row.get("cargo");
+        if (cargo.isEmpty()) throw new BusinessRuleException("Cargo é obrigatório!");
+        String login = row.get("login");
+        if (login.isEmpty()) throw new BusinessRuleException("Login é obrigatório!");
+        String senha = row.get("senha");
+        if (senha.length() < 6) throw new BusinessRuleException("Senha deve ter pelo menos 6 caracteres!");
+        UserProfile perfil;
+        try {
+            perfil = UserProfile.valueOf(row.get("perfil").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessRuleException("Perfil inválido!");
+        }
+        if (actorProfile == null || !actorProfile.canManageUser(perfil)) {
+            throw new BusinessRuleException("Sem permissão para criar usuário com este perfil!");
+        }
+        return new User(nome, cpf, email, cargo, login, senha, perfil);
+    }
+
+    private String checkUnique(User user, Seen seen) {
+        if (seen.cpfs.contains(user.getCpf()) || userRepo.findByCpf(user.getCpf()).isPresent()) return "CPF já cadastrado!";
+        if (seen.emails.contains(user.getEmail()) || userRepo.findByEmail(user.getEmail()).isPresent()) return "Email já cadastrado!";
+        if (seen.logins.contains(user.getLogin()) || userRepo.findByLogin(user.getLogin()).isPresent()) return "Login já existe!";
+        seen.cpfs.add(user.getCpf());
+        seen.emails.add(user.getEmail());
+        seen.logins.add(user.getLogin());
+        return null;
+    }
+
+    // mesmas regras de ProjectService.createProject
+    private Project buildProject(Row row) {
+        String gerenteId = row.get("gerenteId");
+        if (gerenteId.isEmpty()) throw new BusinessRuleException("Gerente é obrigatório!");
+        Project project = new Project(row.get("nome"), row.get("descricao"),
+                parseDate(row.get("dataInicio")), parseDate(row.get("dataTerminoPrevista")), gerenteId);
+        project.setStatus(ProjectStatus.PLANEJADO);
+        return project;
+    }
+
+    // TeamView usa o usuário logado como criador; aqui ele vem do arquivo
+    private Team buildTeam(Row row) {
+        String criadorId = row.get("criadorId");
+        if (criadorId.isEmpty()) throw new BusinessRuleException("Criador é obrigatório!");
+        return new Team(row.get("nome"), row.get("descricao"), criadorId);
+    }
+
+    // mesmas regras de TaskService.createTask; o projeto é conferido de novo sob lock na gravação
+    private Task buildTask(Row row) {
+        String projectId = row.get("projectId");
+        Optional<Project> project = projectRepo.findById(projectId);
+        if (project.isEmpty()) throw new BusinessRuleException("Projeto não encontrado!");
+        if (project.get().isCanceled()) throw new BusinessRuleException("Projeto cancelado — não é permitido criar tarefas.");
+        String teamId = row.get("teamId");
+        if (teamRepo.findById(teamId).isEmpty()) throw new BusinessRuleException("Equipe não encontrada!");
+
+        Task task = new Task(row.get("titulo"), row.get("descricao"), projectId, teamId);
+        String venc = row.get("dataVencimento");
+        if (!venc.isEmpty()) {
+            try {
+                task.setDataVencimento(LocalDateTime.parse(venc));
+            } catch (DateTimeParseException e) {
+                throw new BusinessRuleException("Data de vencimento inválida: " + venc);
+            }
+        }
+        task.validateRequiredFields();
+        return task;
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value.isEmpty()) return null;
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BusinessRuleException("Data inválida: " + value);
+        }
+    }
+
+    /** Grava e audita os registros válidos do lote e devolve quantos foram gravados. */
+    private int write(EntityType type, List<Row> batch, String actorId, String details) {
+        String action = "IMPORT_" + type.name();
+        switch (type) {
+            case USERS: {
+                // UserRepository não tem gravação em lote: a auditoria fica aqui
+                List<String> ids = new ArrayList<>();
+                for (Row row : batch) {
+                    if (row.error != null) continue;
+                    User user = (User) row.entity;
+                    row.error = saveUnique(user);
+                    if (row.error == null) ids.add(user.getId());
+                }
+                logService.logAll(actorId, action, ids, details);
+                return ids.size();
+            }
+            case PROJECTS: {
+                List<Project> valid = validEntities(batch);
+                projectRepo.saveAll(valid, actorId, action, details);
+                return valid.size();
+            }
+            case TEAMS: {
+                List<Team> valid = validEntities(batch);
+                teamRepo.saveAll(valid, actorId, action, details);
+                return valid.size();
+            }
+            case TASKS:
+                return writeTasks(batch, actorId, action, details);
+            default:
+                throw new IllegalStateException("tipo desconhecido: " + type);
+        }
+    }
+
+    /**
+     * Grava as tarefas e as vincula aos projetos, sob os locks dos projetos envolvidos
+     * (os mesmos do TaskService/ProjectService): um cancelamento concorrente não passa no meio.
+     */
+    private int writeTasks(List<Row> batch, String actorId, String action, String details) {
+        Map<String, Project> projects = new LinkedHashMap<>();
+        for (Row row : batch) {
+            if (row.error == null) projects.put(((Task) row.entity).getProjectId(), null);
+        }
+        if (projects.isEmpty()) return 0;
+
+        StripedLocks.Held held = locks.lock(projects.keySet().toArray(new String[0]));
+        try {
+            for (String projectId : projects.keySet()) {
+                projects.put(projectId, projectRepo.findById(projectId).orElse(null));
+            }
+            List<Task> valid = new ArrayList<>();
+            for (Row row : batch) {
+                if (row.error != null) continue;
+                Task task = (Task) row.entity;
+                Project p = projects.get(task.getProjectId());
+                if (p == null) {
+                    row.error = "Projeto não encontrado!";
+                    continue;
+                }
+                if (p.isCanceled()) {
+                    row.error = "Projeto cancelado — não é permitido criar tarefas.";
+                    continue;
+                }
+                valid.add(task);
+            }
+            taskRepo.saveAll(valid, actorId, action, details);
+
+            // vincular tarefas aos projetos
+            Set<Project> touched = new LinkedHashSet<>();
+            for (Task task : valid) {
+                Project p = projects.get(task.getProjectId());
+                p.addTask(task.getId());
+                touched.add(p);
+            }
+            projectRepo.saveAll(touched, actorId, "LINK_IMPORTED_TASKS", details);
+            return valid.size();
+        } finally {
+            held.unlock();
+        }
+    }
+
+    /**
+     * Confere de novo a unicidade sob os locks de CPF, email e login e só então grava:
+     * outra importação pode ter gravado os mesmos valores depois da checagem do lote.
+     * Devolve o erro, ou null se o usuário foi gravado.
+     */
+    private String saveUnique(User user) {
+        StripedLocks.Held held = locks.lock("cpf:" + user.getCpf(), "email:" + user.getEmail(), "login:" + user.getLogin());
+        try {
+            if (userRepo.findByCpf(user.getCpf()).isPresent()) return "CPF já cadastrado!";
+            if (userRepo.findByEmail(user.getEmail()).isPresent()) return "Email já cadastrado!";
+            if (userRepo.findByLogin(user.getLogin()).isPresent()) return "Login já existe!";
+            userRepo.save(user);
+            return null;
+        } finally {
+            held.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> validEntities(List<Row> batch) {
+        List<T> valid = new ArrayList<>();
+        for (Row row : batch) {
+            if (row.error == null) valid.add((T) row.entity);
+        }
+        return valid;
+    }
+
+    // ---- leitura de CSV/JSONL ----
+
+    private static Row parseCsvRow(long lineNo, String line, List<String> header) {
+        try {
+            List<String> values = parseCsvLine(line);
+            if (values.size() != header.size()) {
+                return new Row(lineNo, Map.of(), "esperadas " + header.size() + " colunas, encontradas " + values.size());
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) fields.put(header.get(i).trim(), values.get(i));
+            return new Row(lineNo, fields, null);
+        } catch (IllegalArgumentException e) {
+            return new Row(lineNo, Map.of(), e.getMessage());
+        }
+    }
+
+    /** Separa uma linha CSV (vírgula; aspas duplas com "" como escape). */
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cur.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("aspas não fechadas");
+        values.add(cur.toString());
+        return values;
+    }
+
+    private static String csvQuote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static Row parseJsonRow(long lineNo, String line) {
+        try {
+            return new Row(lineNo, parseFlatJson(line), null);
+        } catch (IllegalArgumentException e) {
+            return new Row(lineNo, Map.of(), "JSON inválido: " + e.getMessage());
+        }
+    }
+
+    /** Objeto JSON plano: valores string, número, booleano ou null (ignorado). */
+    static Map<String, String> parseFlatJson(String s) {
+        Map<String, String> fields = new HashMap<>();
+        int[] pos = {skipWs(s, 0)};
+        expect(s, pos, '{');
+        pos[0] = skipWs(s, pos[0]);
+        if (pos[0] < s.length() && s.charAt(pos[0]) == '}') {
+            pos[0]++;
+        } else {
+            while (true) {
+                pos[0] = skipWs(s, pos[0]);
+                String key = readJsonString(s, pos);
+                pos[0] = skipWs(s, pos[0]);
+                expect(s, pos, ':');
+                pos[0] = skipWs(s, pos[0]);
+                String value = readJsonValue(s, pos);
+                if (value != null) fields.put(key, value);
+                pos[0] = skipWs(s, pos[0]);
+                if (pos[0] < s.length() && s.charAt(pos[0]) == ',') {
+                    pos[0]++;
+                    continue;
+                }
+                expect(s, pos, '}');
+                break;
+            }
+        }
+        if (skipWs(s, pos[0]) != s.length()) throw new IllegalArgumentException("conteúdo após o objeto");
+        return fields;
+    }
+
+    private static String readJsonValue(String s, int[] pos) {
+        if (pos[0] >= s.length()) throw new IllegalArgumentException("valor ausente");
+        char c = s.charAt(pos[0]);
+        if (c == '"') return readJsonString(s, pos);
+        if (c == '{' || c == '[') throw new IllegalArgumentException("valor aninhado não suportado");
+        int start = pos[0];
+        while (pos[0] < s.length() && ",} \t".indexOf(s.charAt(pos[0])) < 0) pos[0]++;
+        String literal = s.substring(start, pos[0]);
+        if (literal.isEmpty()) throw new IllegalArgumentException("valor ausente");
+        return literal.equals("null") ? null : literal;
+    }
+
+    private static String readJsonString(String s, int[] pos) {
+        expect(s, pos, '"');
+        StringBuilder sb = new StringBuilder();
+        while (pos[0] < s.length()) {
+            char c = s.charAt(pos[0]++);
+            if (c == '"') return sb.toString();
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos[0] >= s.length()) break;
+            char e = s.charAt(pos[0]++);
+            switch (e) {
+                case 'n': sb.append('\n'); break;
+                case 't': sb.append('\t'); break;
+                case 'r': sb.append('\r'); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'u':
+                    if (pos[0] + 4 > s.length()) throw new IllegalArgumentException("escape \\u incompleto");
+                    sb.append((char) Integer.parseInt(s.substring(pos[0], pos[0] + 4), 16));
+                    pos[0] += 4;
+                    break;
+                default: sb.append(e);
+            }
+        }
+        throw new IllegalArgumentException("string não fechada");
+    }
+
+    private static void expect(String s, int[] pos, char c) {
+        if (pos[0] >= s.length() || s.charAt(pos[0]) != c) throw new IllegalArgumentException("esperado '" + c + "' na posição " + pos[0]);
+        pos[0]++;
+    }
+
+    private static int skipWs(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+        return i;
+    }
+}
@@ -0,0 +1,287 @@
+package com.projectmanager.service;
+
+import com.projectmanager.model.Project;
+import com.projectmanager.model.Task;
+import com.projectmanager.model.Team;
+import com.projectmanager.model.User;
+import com.projectmanager.repository.ProjectRepository;
+import com.projectmanager.repository.TaskRepository;
+import com.projectmanager.repository.TeamRepository;
+import com.projectmanager.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação dos repositórios e do log de auditoria em CSV (com cabeçalho) ou JSONL.
+ *
+ * Os registros são lidos em streaming (forEach dos repositórios, forEachEntry do
+ * LogService) e codificados direto num ByteBuffer de tamanho fixo que é despejado no
+ * canal quando enche: a memória usada não depende do tamanho da base. A leitura é
+ * fracamente consistente — gravações concorrentes podem ou não aparecer no arquivo.
+ * A senha dos usuários nunca é exportada.
+ */
+public class ExportService {
+    public enum Dataset { USERS, PROJECTS, TEAMS, TASKS, AUDIT_LOG }
+
+    public enum Format { CSV, JSONL }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Nome da coluna e como extraí-la do registro. */
+    private static final class Column<T> {
+        final String name;
+        final Function<T, Object> value;
+
+        Column(String name, Function<T, Object> value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    private static <T> Column<T> col(String name, Function<T, Object> value) {
+        return new Column<>(name, value);
+    }
+
+    private static final List<Column<User>> USER_COLUMNS = List.of(
+            col("id", (User u) -> u.getId()),
+            col("nome", (User u) -> u.getNomeCompleto()),
+            col("cpf", (User u) -> u.getCpf()),
+            col("email", (User u) -> u.getEmail()),
+            col("cargo", (User u) -> u.getCargo()),
+            col("login", (User u) -> u.getLogin()),
+            col("perfil", (User u) -> u.getPerfil().name()),
+            col("ativo", (User u) -> u.isAtivo()),
+            col("dataCriacao", (User u) -> u.getDataCriacao())
+    );
+
+    private static final List<Column<Project>> PROJECT_COLUMNS = List.of(
+            col("id", (Project p) -> p.getId()),
+            col("nome", (Project p) -> p.getNome()),
+            col("descricao", (Project p) -> p.getDescricao()),
+            col("gerenteId", (Project p) -> p.getGerenteId()),
+            col("status", (Project p) -> p.getStatus().name()),
+            col("dataInicio", (Project p) -> p.getFormattedDataInicio()),
+            col("dataTerminoPrevista", (Project p) -> p.getFormattedDataTerminoPrevista()),
+            col("dataTerminoReal", (Project p) -> p.getFormattedDataTerminoReal()),
+            col("tarefas", (Project p) -> p.getTaskCount()),
+            col("equipes", (Project p) -> p.getTeamCount())
+    );
+
+    private static final List<Column<Team>> TEAM_COLUMNS = List.of(
+            col("id", (Team t) -> t.getId()),
+            col("nome", (Team t) -> t.getNome()),
+            col("descricao", (Team t) -> t.getDescricao()),
+            col("criadorId", (Team t) -> t.getCriadorId()),
+            col("ativo", (Team t) -> t.isAtivo()),
+            col("membros", (Team t) -> String.join(";", t.getMemberIds())),
+            col("projetos", (Team t) -> t.getProjectCount())
+    );
+
+    private static final List<Column<Task>> TASK_COLUMNS = List.of(
+            col("id", (Task t) -> t.getId()),
+            col("titulo", (Task t) -> t.getTitulo()),
+            col("descricao", (Task t) -> t.getDescricao()),
+            col("projectId", (Task t) -> t.getProjectId()),
+            col("teamId", (Task t) -> t.getTeamId()),
+            col("responsavelId", (Task t) -> t.getResponsavelId()),
+            col("status", (Task t) -> t.getStatus().name()),
+            col("dataCriacao", (Task t) -> t.getDataCriacao()),
+            col("dataVencimento", (Task t) -> t.getDataVencimento()),
+            col("dataConclusao", (Task t) -> t.getDataConclusao())
+    );
+
+    private static final List<Column<LogService.LogEntry>> LOG_COLUMNS = List.of(
+            col("timestamp", (LogService.LogEntry e) -> e.getTimestamp()),
+            col("userId", (LogService.LogEntry e) -> e.getUserId()),
+            col("action", (LogService.LogEntry e) -> e.getAction()),
+            col("entity", (LogService.LogEntry e) -> e.getEntity()),
+            col("details", (LogService.LogEntry e) -> e.getDetails())
+    );
+
+    private final UserRepository userRepo;
+    private final ProjectRepository projectRepo;
+    private final TeamRepository teamRepo;
+    private final TaskRepository taskRepo;
+    private final LogService logService;
+
+    private ExportService() {
+        this.userRepo = UserRepository.getInstance();
+        this.projectRepo = ProjectRepository.getInstance();
+        this.teamRepo = TeamRepository.getInstance();
+        this.taskRepo = TaskRepository.getInstance();
+        this.logService = LogService.getInstance();
+    }
+
+    private static class Holder {
+        static final ExportService INSTANCE = new ExportService();
+    }
+
+    public static ExportService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /** Exporta para um arquivo (sobrescrito), comprimido com gzip se pedido. Devolve o total de registros. */
+    public long exportToFile(Dataset dataset, Format format, Path file, boolean gzip) throws IOException {
+        try (FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (!gzip) return export(dataset, format, fc);
+            // o gzip fecha o canal do arquivo junto; o fc do try só garante o fechamento em caso de erro
+            try (OutputStream gz = new GZIPOutputStream(Channels.newOutputStream(fc), BUFFER_SIZE);
+                 WritableByteChannel out = Channels.newChannel(gz)) {
+                return export(dataset, format, out);
+            }
+        }
+    }
+
+    /** Escreve o conjunto no canal, sem fechá-lo. Devolve o total de registros. */
+    public long export(Dataset dataset, Format format, WritableByteChannel out) throws IOException {
+        switch (dataset) {
+            case USERS:
+                // UserRepository não expõe iteração sem cópia
+                return write(USER_COLUMNS, format, out, sink -> userRepo.findAll().forEach(sink));
+            case PROJECTS:
+                return write(PROJECT_COLUMNS, format, out, projectRepo::forEach);
+            case TEAMS:
+                return write(TEAM_COLUMNS, format, out, teamRepo::forEach);
+            case TASKS:
+                return write(TASK_COLUMNS, format, out, taskRepo::forEach);
+            case AUDIT_LOG:
+                return write(LOG_COLUMNS, format, out, logService::forEachEntry);
+            default:
+                throw new IllegalArgumentException("conjunto desconhecido: " + dataset);
+        }
+    }
+
+    private static <T> long write(List<Column<T>> columns, Format format, WritableByteChannel out,
+                                  Consumer<Consumer<T>> source) throws IOException {
+        Writer writer = new Writer(out);
+        StringBuilder sb = new StringBuilder(256);
+        if (format == Format.CSV) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) sb.append(',');
+                sb.append(columns.get(i).name);
+            }
+            sb.append('\n');
+            writer.write(sb);
+        }
+        long[] count = {0};
+        try {
+            source.accept(record -> {
+                sb.setLength(0);
+                if (format == Format.CSV) appendCsv(sb, columns, record); else appendJson(sb, columns, record);
+                try {
+                    writer.write(sb);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return count[0];
+    }
+
+    private static <T> void appendCsv(StringBuilder sb, List<Column<T>> columns, T record) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) sb.append(',');
+            Object v = columns.get(i).value.apply(record);
+            if (v == null) continue;
+            String s = v.toString();
+            if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+                sb.append(s);
+                continue;
+            }
+            sb.append('"');
+            for (int k = 0; k < s.length(); k++) {
+                char c = s.charAt(k);
+                if (c == '"') sb.append('"');
+                sb.append(c);
+            }
+            sb.append('"');
+        }
+        sb.append('\n');
+    }
+
+    private static <T> void appendJson(StringBuilder sb, List<Column<T>> columns, T record) {
+        sb.append('{');
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append('"').append(columns.get(i).name).append("\":");
+            Object v = columns.get(i).value.apply(record);
+            if (v == null || v instanceof Number || v instanceof Boolean) {
+                sb.append(v);
+                continue;
+            }
+            String s = v.toString();
+            sb.append('"');
+            for (int k = 0; k < s.length(); k++) {
+                char c = s.charAt(k);
+                switch (c) {
+                    case '"': sb.append("\\\""); break;
+                    case '\\': sb.append("\\\\"); break;
+                    case '\n': sb.append("\\n"); break;
+                    case '\r': sb.append("\\r"); break;
+                    case '\t': sb.append("\\t"); break;
+                    default:
+                        if (c < 0x20) sb.append(String.format("\\u%04x", (int) c)); else sb.append(c);
+                }
+            }
+            sb.append('"');
+        }
+        sb.append("}\n");
+    }
+
+    /** Codifica texto em UTF-8 num buffer fixo e despeja no canal quando ele enche. */
+    private static final class Writer {
+        private final WritableByteChannel out;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        Writer(WritableByteChannel out) {
+            this.out = out;
+        }
+
+        void write(CharSequence text) throws IOException {
+            CharBuffer chars = CharBuffer.wrap(text);
+            while (true) {
+                CoderResult r = encoder.encode(chars, buffer, false);
+                if (r.isOverflow()) {
+                    drain();
+                } else {
+                    break;
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            drain();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) out.write(buffer);
+            buffer.clear();
+        }
+    }
+}
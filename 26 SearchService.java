@@ -0,0 +1,241 @@
+package com.projectmanager.service;
+
+import com.projectmanager.model.Project;
+import com.projectmanager.model.Task;
+import com.projectmanager.model.Team;
+import com.projectmanager.repository.ProjectRepository;
+import com.projectmanager.repository.RepositoryListener;
+import com.projectmanager.repository.TaskRepository;
+import com.projectmanager.repository.TeamRepository;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Busca textual por nome/descrição de projetos e equipes e título/descrição de tarefas.
+ *
+ * Cada tipo tem um índice invertido termo -> ids, mantido de forma incremental pelos
+ * RepositoryListener (como o StatisticsService). Os termos são normalizados: minúsculas,
+ * sem acentos ("Execução" vira "execucao") e com pelo menos 2 caracteres.
+ *
+ * Todos os termos da consulta precisam casar, cada um como prefixo de algum termo do
+ * registro ("proj fin" encontra "Projeto Financeiro"). A varredura começa pelo termo
+ * da consulta com menos ids no índice e os demais são conferidos no conjunto de termos
+ * de cada candidato, parando ao atingir o limite de resultados.
+ * O resultado sai na ordem alfabética do termo que casou, não por relevância.
+ */
+public class SearchService {
+    public static final int DEFAULT_LIMIT = 50;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Índice invertido de um tipo de entidade. Nada trava: a tokenização roda fora de
+     * qualquer lock e cada termo muda atomicamente pelo compute do ConcurrentHashMap
+     * (como EntityStore.Index); a ordem das escritas de um mesmo id vem do lock do id no
+     * repositório, que chama os listeners. O vocabulário ordenado serve às buscas por
+     * prefixo e só muda dentro do compute do próprio termo.
+     */
+    private static final class TextIndex {
+        private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListSet<String> vocabulary = new ConcurrentSkipListSet<>();
+        private final Map<String, String[]> termsById = new ConcurrentHashMap<>();
+
+        void put(String id, String... texts) {
+            String[] terms = tokenize(texts);
+            String[] previous = termsById.put(id, terms);
+            Set<String> current = Set.of(terms);
+            Set<String> old = previous == null ? Set.of() : Set.of(previous);
+            for (String term : old) {
+                if (!current.contains(term)) removePosting(term, id);
+            }
+            for (String term : terms) {
+                if (!old.contains(term)) addPosting(term, id);
+            }
+        }
+
+        void remove(String id) {
+            String[] previous = termsById.remove(id);
+            if (previous == null) return;
+            for (String term : previous) removePosting(term, id);
+        }
+
+        private void addPosting(String term, String id) {
+            postings.compute(term, (k, ids) -> {
+                if (ids == null) {
+                    ids = ConcurrentHashMap.newKeySet();
+                    vocabulary.add(term);
+                }
+                ids.add(id);
+                return ids;
+            });
+        }
+
+        private void removePosting(String term, String id) {
+            postings.computeIfPresent(term, (k, ids) -> {
+                ids.remove(id);
+                if (!ids.isEmpty()) return ids;
+                vocabulary.remove(term);
+                return null;
+            });
+        }
+
+        List<String> search(String query, int limit) {
+            String[] tokens = tokenize(query);
+            List<String> result = new ArrayList<>();
+            if (tokens.length == 0 || limit <= 0) return result;
+
+            // começa pelo termo com menos ids; a contagem de cada um para ao passar do melhor
+            Set<String> driver = null;
+            long best = Long.MAX_VALUE;
+            for (String token : tokens) {
+                Set<String> range = vocabulary.subSet(token, true, token + Character.MAX_VALUE, false);
+                long count = 0;
+                for (String term : range) {
+                    count += postingsOf(term).size();
+                    if (count >= best) break;
+                }
+                if (count < best) {
+                    best = count;
+                    driver = range;
+                }
+            }
+            Set<String> seen = new HashSet<>();
+            for (String term : driver) {
+                for (String id : postingsOf(term)) {
+                    if (!seen.add(id) || !matchesAll(id, tokens)) continue;
+                    result.add(id);
+                    if (result.size() == limit) return result;
+                }
+            }
+            return result;
+        }
+
+        private Set<String> postingsOf(String term) {
+            Set<String> ids = postings.get(term);
+            return ids == null ? Set.of() : ids;
+        }
+
+        private boolean matchesAll(String id, String[] tokens) {
+            String[] terms = termsById.get(id);
+            if (terms == null) return false;
+            for (String token : tokens) {
+                boolean found = false;
+                for (String term : terms) {
+                    if (term.startsWith(token)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) return false;
+            }
+            return true;
+        }
+    }
+
+    private final TextIndex projectIndex = new TextIndex();
+    private final TextIndex teamIndex = new TextIndex();
+    private final TextIndex taskIndex = new TextIndex();
+
+    private final ProjectRepository projectRepo;
+    private final TeamRepository teamRepo;
+    private final TaskRepository taskRepo;
+
+    private SearchService() {
+        this.projectRepo = ProjectRepository.getInstance();
+        this.teamRepo = TeamRepository.getInstance();
+        this.taskRepo = TaskRepository.getInstance();
+
+        projectRepo.addListener(new RepositoryListener<Project>() {
+            @Override
+            public void onSave(Project p) {
+                projectIndex.put(p.getId(), p.getNome(), p.getDescricao());
+            }
+
+            @Override
+            public void onDelete(String id, Project removed) {
+                projectIndex.remove(id);
+            }
+        });
+        teamRepo.addListener(new RepositoryListener<Team>() {
+            @Override
+            public void onSave(Team t) {
+                teamIndex.put(t.getId(), t.getNome(), t.getDescricao());
+            }
+
+            @Override
+            public void onDelete(String id, Team removed) {
+                teamIndex.remove(id);
+            }
+        });
+        taskRepo.addListener(new RepositoryListener<Task>() {
+            @Override
+            public void onSave(Task t) {
+                taskIndex.put(t.getId(), t.getTitulo(), t.getDescricao());
+            }
+
+            @Override
+            public void onDelete(String id, Task removed) {
+                taskIndex.remove(id);
+            }
+        });
+    }
+
+    private static class Holder {
+        static final SearchService INSTANCE = new SearchService();
+    }
+
+    public static SearchService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public List<Project> searchProjects(String query, int limit) {
+        return resolve(projectIndex.search(query, limit), projectRepo::findById);
+    }
+
+    public List<Team> searchTeams(String query, int limit) {
+        return resolve(teamIndex.search(query, limit), teamRepo::findById);
+    }
+
+    public List<Task> searchTasks(String query, int limit) {
+        return resolve(taskIndex.search(query, limit), taskRepo::findById);
+    }
+
+    private static <T> List<T> resolve(List<String> ids, Function<String, Optional<T>> finder) {
+        List<T> result = new ArrayList<>(ids.size());
+        for (String id : ids) finder.apply(id).ifPresent(result::add);
+        return result;
+    }
+
+    /** Termos distintos do texto: minúsculos, sem acentos, separados por qualquer não alfanumérico. */
+    static String[] tokenize(String... texts) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null || text.isEmpty()) continue;
+            String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                    .toLowerCase(Locale.ROOT);
+            int start = -1;
+            for (int i = 0; i <= folded.length(); i++) {
+                boolean alnum = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+                if (alnum && start < 0) {
+                    start = i;
+                } else if (!alnum && start >= 0) {
+                    if (i - start >= 2) terms.add(folded.substring(start, i));
+                    start = -1;
+                }
+            }
+        }
+        return terms.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,215 @@
+package com.projectmanager.service;
+
+import com.projectmanager.model.Task;
+import com.projectmanager.repository.RepositoryListener;
+import com.projectmanager.repository.TaskRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acompanha o vencimento das tarefas em aberto usando o índice por vencimento do
+ * TaskRepository (consultas em O(log n + k), sem varrer a tabela).
+ *
+ * Um agendador em segundo plano marca como vencidas as tarefas cujo prazo passou desde a
+ * última verificação — cada execução lê só a faixa [checkedUntil, agora) do índice — e
+ * registra TASK_OVERDUE no LogService, uma vez por tarefa. Tarefas salvas com vencimento
+ * numa faixa já verificada (prazo editado para trás) entram na próxima verificação;
+ * concluir, adiar ou excluir a tarefa tira a marca na hora, pelo listener do repositório.
+ * O listener não trava nada além do lock do id que o repositório já segura.
+ * A marca é só deste serviço — o modelo Task não tem campo para ela.
+ * Intervalo configurável por projectmanager.due.interval (segundos, padrão 30).
+ * Falhas da verificação agendada são registradas como DUE_CHECK_FAILED no LogService e
+ * a última fica disponível em {@link #getLastFailure()}.
+ */
+public class DueDateService {
+    private static final long DEFAULT_INTERVAL_SECONDS = 30;
+    /** Tamanho padrão das listas de tarefas atrasadas/a vencer exibidas pelas views. */
+    public static final int DEFAULT_LIMIT = 100;
+    static final String OVERDUE_ACTION = "TASK_OVERDUE";
+    static final String FAILURE_ACTION = "DUE_CHECK_FAILED";
+
+    private final TaskRepository taskRepo;
+    private final LogService logService;
+
+    private final Set<String> flagged = ConcurrentHashMap.newKeySet();
+    // tarefas salvas com vencimento antes de checkedUntil e ainda não marcadas
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    // fim da faixa já verificada; null antes da primeira verificação
+    private volatile LocalDateTime checkedUntil;
+    // serializa verificações concorrentes (o monitor do serviço fica para start/shutdown)
+    private final Object checkLock = new Object();
+    private volatile String lastFailure;
+
+    private ScheduledExecutorService scheduler;
+
+    private DueDateService() {
+        this.taskRepo = TaskRepository.getInstance();
+        this.logService = LogService.getInstance();
+
+        // chamado sob o lock da tarefa, depois de o índice por vencimento ser atualizado
+        taskRepo.addListener(new RepositoryListener<Task>() {
+            @Override
+            public void onSave(Task t) {
+                onDueChanged(t.getId(), openDue(t));
+            }
+
+            @Override
+            public void onDelete(String id, Task removed) {
+                onDueChanged(id, null);
+            }
+        });
+    }
+
+    private static class Holder {
+        static final DueDateService INSTANCE = new DueDateService();
+    }
+
+    public static DueDateService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) return;
+        long interval = Long.getLong("projectmanager.due.interval", DEFAULT_INTERVAL_SECONDS);
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "due-date");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkQuietly, 0, interval, TimeUnit.SECONDS);
+    }
+
+    public synchronized void shutdown() {
+        if (scheduler == null) return;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+    }
+
+    /**
+     * Marca as tarefas que venceram desde a última verificação, mais as pendentes (salvas
+     * com prazo numa faixa já verificada), e devolve quantas foram marcadas agora. Na
+     * primeira verificação, tarefas que já têm TASK_OVERDUE no log (de uma execução
+     * anterior) são marcadas sem registrar de novo.
+     */
+    public int checkNow() {
+        synchronized (checkLock) {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime from = checkedUntil;
+            // avança o cursor antes de ler a faixa: uma tarefa salva durante a leitura ou
+            // aparece no índice, ou o listener já vê o cursor novo e a põe em pending
+            checkedUntil = now;
+            List<Task> candidates = taskRepo.findOpenDueBetween(from, now, Integer.MAX_VALUE);
+            Set<String> logged = from == null ? alreadyLogged(candidates) : Set.of();
+
+            int marked = 0;
+            for (Task t : candidates) {
+                if (flag(t, now, logged)) marked++;
+            }
+            for (Iterator<String> it = pending.iterator(); it.hasNext(); ) {
+                String id = it.next();
+                it.remove();
+                Task t = taskRepo.findById(id).orElse(null);
+                if (t != null && flag(t, now, logged)) marked++;
+            }
+            return marked;
+        }
+    }
+
+    /** Quantas tarefas estão marcadas como vencidas agora — O(1), sem consultar o índice. */
+    public int getOverdueCount() {
+        return flagged.size();
+    }
+
+    /** Se a tarefa estava vencida na última verificação. */
+    public boolean isOverdue(String taskId) {
+        return flagged.contains(taskId);
+    }
+
+    /** Última falha da verificação agendada ("data: mensagem"), ou null se nunca falhou. */
+    public String getLastFailure() {
+        return lastFailure;
+    }
+
+    /** Tarefas em aberto com vencimento já passado, da mais atrasada para a menos. */
+    public List<Task> getOverdueTasks(int limit) {
+        return taskRepo.findOpenDueBetween(null, LocalDateTime.now(), limit);
+    }
+
+    /** Tarefas em aberto que vencem dentro da janela a partir de agora, por ordem de vencimento. */
+    public List<Task> getDueSoon(Duration window, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return taskRepo.findOpenDueBetween(now, now.plus(window), limit);
+    }
+
+    /** Marca a tarefa se ainda estiver em aberto e vencida; true se registrou TASK_OVERDUE. */
+    private boolean flag(Task t, LocalDateTime now, Set<String> logged) {
+        LocalDateTime due = openDue(t);
+        if (due == null || !due.isBefore(now) || !flagged.add(t.getId())) return false;
+        // concluída ou adiada entre a leitura e a marca: o listener pode ter desmarcado antes
+        LocalDateTime current = openDue(t);
+        if (current == null || !current.isBefore(now)) {
+            flagged.remove(t.getId());
+            return false;
+        }
+        if (logged.contains(t.getId())) return false;
+        logService.log("SYSTEM", OVERDUE_ACTION, t.getId(), "Tarefa vencida em " + due);
+        return true;
+    }
+
+    private void onDueChanged(String taskId, LocalDateTime due) {
+        LocalDateTime until = checkedUntil;
+        if (due == null || until == null || !due.isBefore(until)) {
+            // sem prazo, ou prazo ainda não alcançado pelas verificações
+            flagged.remove(taskId);
+            pending.remove(taskId);
+        } else if (!flagged.contains(taskId)) {
+            // vencimento numa faixa que já foi verificada: entra na próxima
+            pending.add(taskId);
+        }
+    }
+
+    private static LocalDateTime openDue(Task t) {
+        return t.getDataConclusao() == null ? t.getDataVencimento() : null;
+    }
+
+    /**
+     * Ids das tarefas com TASK_OVERDUE já registrado, numa única consulta pelo índice de
+     * ações do log a partir do vencimento mais antigo (antes dele nenhuma estava vencida).
+     */
+    private Set<String> alreadyLogged(List<Task> candidates) {
+        if (candidates.isEmpty()) return Set.of();
+        Set<String> ids = new HashSet<>();
+        for (LogService.LogEntry e : logService.query(candidates.get(0).getDataVencimento(), null, OVERDUE_ACTION, null)) {
+            ids.add(e.getEntity());
+        }
+        return ids;
+    }
+
+    private void checkQuietly() {
+        try {
+            checkNow();
+        } catch (RuntimeException e) {
+            // uma falha não pode derrubar o agendamento; a próxima verificação tenta de novo
+            lastFailure = LocalDateTime.now() + ": " + e.getMessage();
+            try {
+                logService.log("SYSTEM", FAILURE_ACTION, "due-date", e.getMessage());
+            } catch (RuntimeException logFailure) {
+                // o próprio log de auditoria pode ser a causa; lastFailure já guarda o erro
+            }
+        }
+    }
+}
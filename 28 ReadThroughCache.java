@@ -0,0 +1,344 @@
+package com.projectmanager.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Cache de leitura (read-through) de tamanho limitado na frente de um repositório.
+ *
+ * A política de despejo segue a ideia do W-TinyLFU:
+ * - uma janela LRU pequena (1%) recebe as entradas novas;
+ * - quem sai da janela disputa a vaga com o mais antigo da região principal, e fica quem
+ *   tiver mais acessos recentes segundo um sketch de frequência (count-min, contadores de
+ *   4 bits que são divididos por 2 periodicamente para envelhecer o histórico);
+ * - a região principal é um LRU segmentado: probation (20%) e protected (80%), para onde
+ *   vai quem é lido de novo.
+ * Assim, uma varredura única não expulsa as entradas realmente quentes.
+ *
+ * Leituras com acerto não bloqueiam: a atualização da política usa tryLock e é descartada
+ * sob contenção. Ausências não são guardadas. Uma invalidação durante a carga do mesmo id
+ * impede que o valor carregado entre no cache: cada id tem um contador de invalidações
+ * (faixas de STAMP_STRIPES contadores por hash), lido antes da carga e conferido na
+ * admissão — uma escrita em outro id não descarta a carga (salvo colisão de faixa).
+ *
+ * invalidate não espera o lock da política: tira o id do mapa e enfileira o nó, que sai
+ * da sua região na próxima vez que alguém segurar o lock (e é ignorado até lá).
+ */
+public final class ReadThroughCache<T> {
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int STAMP_STRIPES = 1024;
+
+    private static final class Node<T> {
+        final String key;
+        final T value;
+        int region;
+
+        Node(String key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final String name;
+    private final int maximumSize;
+    private final int maxWindow;
+    private final int maxProtected;
+    private final Function<String, Optional<T>> loader;
+    private final Function<Collection<String>, List<T>> bulkLoader;
+    private final Function<T, String> idOf;
+
+    private final Map<String, Node<T>> data = new ConcurrentHashMap<>();
+    // ordem LRU de cada região (primeiro = mais antigo); protegidos por policyLock.
+    // Node não redefine equals: um nó invalidado não se confunde com o que o substituir
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final LinkedHashSet<Node<T>> window = new LinkedHashSet<>();
+    private final LinkedHashSet<Node<T>> probation = new LinkedHashSet<>();
+    private final LinkedHashSet<Node<T>> protectedNodes = new LinkedHashSet<>();
+    private final FrequencySketch sketch;
+    // nós já fora do mapa que ainda precisam sair da sua região
+    private final Queue<Node<T>> invalidated = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param loader     busca um id no repositório
+     * @param bulkLoader busca vários ids de uma vez (ids inexistentes ficam de fora)
+     * @param idOf       id de uma entidade devolvida pelo bulkLoader
+     */
+    public ReadThroughCache(String name, int maximumSize, Function<String, Optional<T>> loader,
+                            Function<Collection<String>, List<T>> bulkLoader, Function<T, String> idOf) {
+        if (maximumSize < 2) throw new IllegalArgumentException("maximumSize deve ser >= 2");
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.maxWindow = Math.max(1, maximumSize / 100);
+        this.maxProtected = (maximumSize - maxWindow) * 8 / 10;
+        this.loader = loader;
+        this.bulkLoader = bulkLoader;
+        this.idOf = idOf;
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    public Optional<T> get(String id) {
+        if (id == null) return Optional.empty();
+        Node<T> node = data.get(id);
+        if (node != null) {
+            hits.increment();
+            onHit(node);
+            return Optional.of(node.value);
+        }
+        misses.increment();
+        long stamp = stamps.get(stripe(id));
+        Optional<T> loaded = loader.apply(id);
+        loaded.ifPresent(value -> admit(id, value, stamp));
+        return loaded;
+    }
+
+    /** Resolve vários ids numa única ida ao repositório para os que faltam; mantém a ordem pedida. */
+    public List<T> getAll(Collection<String> ids) {
+        Map<String, T> found = new HashMap<>();
+        // id que faltou -> contador de invalidações antes da carga
+        Map<String, Long> missing = new HashMap<>();
+        for (String id : ids) {
+            Node<T> node = data.get(id);
+            if (node != null) {
+                hits.increment();
+                onHit(node);
+                found.put(id, node.value);
+            } else if (!found.containsKey(id) && !missing.containsKey(id)) {
+                misses.increment();
+                missing.put(id, stamps.get(stripe(id)));
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (T value : bulkLoader.apply(new ArrayList<>(missing.keySet()))) {
+                String id = idOf.apply(value);
+                found.put(id, value);
+                admit(id, value, missing.get(id));
+            }
+        }
+        List<T> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            T value = found.get(id);
+            if (value != null) result.add(value);
+        }
+        return result;
+    }
+
+    /** Não bloqueia: chamado pelos listeners dos repositórios sob o lock do id alterado. */
+    public void invalidate(String id) {
+        stamps.incrementAndGet(stripe(id));
+        Node<T> node = data.remove(id);
+        if (node == null) return;
+        invalidated.offer(node);
+        if (policyLock.tryLock()) {
+            try {
+                drainInvalidated();
+            } finally {
+                policyLock.unlock();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < STAMP_STRIPES; i++) stamps.incrementAndGet(i);
+        policyLock.lock();
+        try {
+            data.clear();
+            invalidated.clear();
+            window.clear();
+            probation.clear();
+            protectedNodes.clear();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    public String getName() { return name; }
+    public int size() { return data.size(); }
+    public long getHitCount() { return hits.sum(); }
+    public long getMissCount() { return misses.sum(); }
+    public long getEvictionCount() { return evictions.sum(); }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d/%d entradas, acertos=%d, faltas=%d (%.1f%%), despejos=%d",
+                name, size(), maximumSize, getHitCount(), getMissCount(), getHitRate() * 100, getEvictionCount());
+    }
+
+    private void onHit(Node<T> node) {
+        // sob contenção a atualização da política é descartada; o acerto já foi contado
+        if (!policyLock.tryLock()) return;
+        try {
+            drainInvalidated();
+            if (data.get(node.key) != node) return;
+            sketch.increment(node.key);
+            switch (node.region) {
+                case WINDOW:
+                    moveToEnd(window, node);
+                    break;
+                case PROBATION:
+                    probation.remove(node);
+                    node.region = PROTECTED;
+                    protectedNodes.add(node);
+                    if (protectedNodes.size() > maxProtected) {
+                        // o mais antigo do protected volta para o probation
+                        Node<T> demoted = removeFirst(protectedNodes);
+                        demoted.region = PROBATION;
+                        probation.add(demoted);
+                    }
+                    break;
+                default:
+                    moveToEnd(protectedNodes, node);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void admit(String key, T value, long stamp) {
+        policyLock.lock();
+        try {
+            drainInvalidated();
+            // id invalidado durante a carga: o valor pode estar velho
+            if (stamps.get(stripe(key)) != stamp) return;
+            Node<T> node = new Node<>(key, value);
+            if (data.putIfAbsent(key, node) != null) return;
+            sketch.increment(key);
+            node.region = WINDOW;
+            window.add(node);
+            if (window.size() <= maxWindow) return;
+
+            // quem sai da janela entra no probation e disputa a vaga com o mais antigo de lá
+            Node<T> candidate = removeFirst(window);
+            candidate.region = PROBATION;
+            probation.add(candidate);
+            if (data.size() <= maximumSize) return;
+
+            Node<T> victim = probation.iterator().next();
+            Node<T> evicted = victim == candidate || sketch.frequency(candidate.key) > sketch.frequency(victim.key)
+                    ? victim : candidate;
+            probation.remove(evicted);
+            // um nó invalidado no meio do caminho já saiu do mapa; não conta como despejo
+            if (data.remove(evicted.key, evicted)) evictions.increment();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /** Tira das regiões os nós invalidados. Exige policyLock. */
+    private void drainInvalidated() {
+        Node<T> node;
+        while ((node = invalidated.poll()) != null) regionOf(node.region).remove(node);
+    }
+
+    private LinkedHashSet<Node<T>> regionOf(int region) {
+        return region == WINDOW ? window : region == PROBATION ? probation : protectedNodes;
+    }
+
+    private static int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STAMP_STRIPES - 1);
+    }
+
+    private static <T> void moveToEnd(LinkedHashSet<Node<T>> region, Node<T> node) {
+        region.remove(node);
+        region.add(node);
+    }
+
+    private static <T> Node<T> removeFirst(LinkedHashSet<Node<T>> region) {
+        Iterator<Node<T>> it = region.iterator();
+        Node<T> first = it.next();
+        it.remove();
+        return first;
+    }
+
+    /**
+     * Sketch count-min com 4 linhas de contadores de 4 bits (16 por long). Ao somar
+     * 10x o tamanho do cache em incrementos, todos os contadores são divididos por 2.
+     * Acesso sob policyLock.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+        private final long[] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+            int size = Integer.highestOneBit(Math.max(16, maximumSize) - 1) << 1;
+            this.table = new long[size];
+            this.mask = size - 1;
+            this.sampleSize = 10 * maximumSize;
+        }
+
+        int frequency(String key) {
+            int hash = spread(key.hashCode());
+            int min = 15;
+            for (int i = 0; i < 4; i++) {
+                min = Math.min(min, (int) ((table[index(hash, i)] >>> offset(hash, i)) & 0xfL));
+            }
+            return min;
+        }
+
+        void increment(String key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int idx = index(hash, i);
+                int off = offset(hash, i);
+                if (((table[idx] >>> off) & 0xfL) < 15) {
+                    table[idx] += 1L << off;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) reset();
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++) table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+            additions /= 2;
+        }
+
+        private int index(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h += h >>> 32;
+            return (int) h & mask;
+        }
+
+        private static int offset(int hash, int row) {
+            return ((hash >>> (row << 3)) & 0xf) << 2;
+        }
+
+        private static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.projectmanager.service;
+
+import com.projectmanager.model.Project;
+import com.projectmanager.model.Task;
+import com.projectmanager.model.Team;
+import com.projectmanager.model.User;
+import com.projectmanager.repository.ProjectRepository;
+import com.projectmanager.repository.RepositoryListener;
+import com.projectmanager.repository.TaskRepository;
+import com.projectmanager.repository.TeamRepository;
+import com.projectmanager.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Caches de leitura (ver ReadThroughCache) na frente dos repositórios de usuários,
+ * projetos, equipes e tarefas, para as consultas das views e a resolução tarefa→projeto
+ * do TaskService — ex.: resolver todos os membros de uma equipe com uma única busca em
+ * lote em vez de N findById. Leituras feitas sob lock para alterar a entidade continuam
+ * indo direto ao repositório.
+ *
+ * Projetos, equipes e tarefas são invalidados pelos RepositoryListener a cada save/delete.
+ * UserRepository não tem listeners: quem altera um usuário existente deve chamar
+ * {@link #invalidateUser(String)}.
+ * Tamanho de cada cache configurável por projectmanager.cache.size (padrão 10000).
+ */
+public class RepositoryCache {
+    private static final int DEFAULT_SIZE = 10_000;
+
+    private final ReadThroughCache<User> users;
+    private final ReadThroughCache<Project> projects;
+    private final ReadThroughCache<Team> teams;
+    private final ReadThroughCache<Task> tasks;
+
+    private RepositoryCache() {
+        int size = Integer.getInteger("projectmanager.cache.size", DEFAULT_SIZE);
+        UserRepository userRepo = UserRepository.getInstance();
+        ProjectRepository projectRepo = ProjectRepository.getInstance();
+        TeamRepository teamRepo = TeamRepository.getInstance();
+        TaskRepository taskRepo = TaskRepository.getInstance();
+
+        // UserRepository não tem busca em lote
+        users = new ReadThroughCache<>("usuarios", size, userRepo::findById, ids -> {
+            List<User> found = new ArrayList<>(ids.size());
+            for (String id : ids) userRepo.findById(id).ifPresent(found::add);
+            return found;
+        }, User::getId);
+        projects = new ReadThroughCache<>("projetos", size, projectRepo::findById, projectRepo::findAllById, Project::getId);
+        teams = new ReadThroughCache<>("equipes", size, teamRepo::findById, teamRepo::findAllById, Team::getId);
+        tasks = new ReadThroughCache<>("tarefas", size, taskRepo::findById, taskRepo::findAllById, Task::getId);
+
+        projectRepo.addListener(invalidating(projects, Project::getId));
+        teamRepo.addListener(invalidating(teams, Team::getId));
+        taskRepo.addListener(invalidating(tasks, Task::getId));
+    }
+
+    private static class Holder {
+        static final RepositoryCache INSTANCE = new RepositoryCache();
+    }
+
+    public static RepositoryCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static <T> RepositoryListener<T> invalidating(ReadThroughCache<T> cache, Function<T, String> idOf) {
+        return new RepositoryListener<T>() {
+            @Override
+            public void onSave(T entity) {
+                cache.invalidate(idOf.apply(entity));
+            }
+
+            @Override
+            public void onDelete(String id, T removed) {
+                cache.invalidate(id);
+            }
+        };
+    }
+
+    public Optional<User> findUser(String id) { return users.get(id); }
+    public Optional<Project> findProject(String id) { return projects.get(id); }
+    public Optional<Team> findTeam(String id) { return teams.get(id); }
+    public Optional<Task> findTask(String id) { return tasks.get(id); }
+
+    public List<User> findUsers(Collection<String> ids) { return users.getAll(ids); }
+
+    public void invalidateUser(String id) {
+        users.invalidate(id);
+    }
+
+    /** Os quatro caches, para exibir os contadores de acerto/falta. */
+    public List<ReadThroughCache<?>> getCaches() {
+        return List.of(users, projects, teams, tasks);
+    }
+}
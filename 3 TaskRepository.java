@@ -1,55 +1,286 @@
 package com.projectmanager.repository;
 
+import com.projectmanager.model.Project;
 import com.projectmanager.model.Task;
+import com.projectmanager.service.LogService;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Repositório simples em memória para Task.
+ * Mantém índices secundários por projeto, por equipe e por vencimento (só tarefas em
+ * aberto), atualizados em save/delete.
+ * Leituras não bloqueiam; escritas travam apenas o id alterado (ver EntityStore).
+ * Com projectmanager.data.dir definido, cada escrita é registrada num WAL e só
+ * retorna depois de estar em disco (ver WriteAheadLog).
  */
 public class TaskRepository {
-    private static TaskRepository instance;
-    private final List<Task> tasks = new ArrayList<>();
+    private final EntityStore<Task> tasks = new EntityStore<>();
+    // índices secundários: projectId/teamId -> ids das tarefas
+    private final EntityStore.Index tasksByProject = new EntityStore.Index();
+    private final EntityStore.Index tasksByTeam = new EntityStore.Index();
+    // tarefas em aberto (sem data de conclusão) ordenadas por vencimento
+    private final EntityStore.SortedIndex<LocalDateTime> openTasksByDue = new EntityStore.SortedIndex<>();
+    // estado de cancelamento dos projetos, replicado por tarefa (ver setProjectCanceled);
+    // não vai para o WAL: é derivado dos projetos, ver o construtor
+    private final Set<String> canceledProjects = ConcurrentHashMap.newKeySet();
+    private final Set<String> tasksOfCanceledProjects = ConcurrentHashMap.newKeySet();
 
-    private TaskRepository() {}
+    private final WriteAheadLog wal = WriteAheadLog.open("tasks");
 
-    public static synchronized TaskRepository getInstance() {
-        if (instance == null) instance = new TaskRepository();
-        return instance;
+    private TaskRepository() {
+        // reconstrói o estado a partir do WAL (no-op se a persistência estiver desligada)
+        wal.replay(new WriteAheadLog.Replayer<Task>() {
+            @Override
+            public void onSave(String id, Task entity) {
+                applySave(entity);
+            }
+
+            @Override
+            public void onDelete(String id) {
+                applyDelete(id);
+            }
+        });
+
+        // acompanha o estado dos projetos por listener (qualquer caminho que salve um projeto
+        // propaga) e depois recupera os já cancelados; registrado antes da varredura para
+        // não perder um cancelamento concorrente — setProjectCanceled é idempotente
+        ProjectRepository projectRepo = ProjectRepository.getInstance();
+        projectRepo.addListener(new RepositoryListener<Project>() {
+            @Override
+            public void onSave(Project p) {
+                if (p.isCanceled() != canceledProjects.contains(p.getId())) setProjectCanceled(p.getId(), p.isCanceled());
+            }
+
+            @Override
+            public void onDelete(String id, Project removed) {
+                if (canceledProjects.contains(id)) setProjectCanceled(id, false);
+            }
+        });
+        projectRepo.forEach(p -> {
+            if (p.isCanceled()) setProjectCanceled(p.getId(), true);
+        });
     }
 
-    public synchronized void save(Task task) {
-        this.tasks.removeIf(t -> t.getId().equals(task.getId()));
-        this.tasks.add(task);
+    private static class Holder {
+        static final TaskRepository INSTANCE = new TaskRepository();
     }
 
-    public synchronized Optional<Task> findById(String id) {
-        return tasks.stream().filter(t -> t.getId().equals(id)).findFirst();
+    public static TaskRepository getInstance() {
+        return Holder.INSTANCE;
     }
 
-    public synchronized List<Task> findAll() {
-        return new ArrayList<>(tasks);
+    public void save(Task task) {
+        long position;
+        ReentrantLock lock = tasks.lockFor(task.getId());
+        lock.lock();
+        try {
+            // grava no WAL antes de alterar a memória
+            position = wal.appendSave(task.getId(), task);
+            applySave(task);
+        } finally {
+            lock.unlock();
+        }
+        wal.awaitDurable(position);
     }
 
-    public synchronized List<Task> findByProjectId(String projectId) {
-        List<Task> result = new ArrayList<>();
-        for (Task t : tasks) {
-            if (projectId.equals(t.getProjectId())) result.add(t);
+    /**
+     * Salva o lote de forma atômica: as faixas de todos os ids são travadas uma única vez
+     * e o lote entra no WAL como um só registro (na recuperação vale tudo ou nada).
+     * Leitores sem lock podem ver o lote pela metade enquanto ele é aplicado.
+     * Depois de durável, o lote é auditado numa única chamada (LogService.logAll, uma
+     * entrada por id com a ação e os detalhes dados).
+     */
+    public void saveAll(Collection<Task> batch, String userId, String action, String details) {
+        if (batch.isEmpty()) return;
+        List<String> ids = new ArrayList<>(batch.size());
+        for (Task task : batch) ids.add(task.getId());
+        long position;
+        List<ReentrantLock> held = tasks.lockAll(ids);
+        try {
+            // serializa tudo antes de aplicar: uma falha aqui não deixa nada aplicado
+            WriteAheadLog.Batch record = wal.newBatch();
+            for (Task task : batch) record.save(task.getId(), task);
+            position = wal.appendBatch(record);
+            for (Task task : batch) applySave(task);
+        } finally {
+            tasks.unlockAll(held);
+        }
+        wal.awaitDurable(position);
+        LogService.getInstance().logAll(userId, action, ids, details);
+    }
+
+    public Optional<Task> findById(String id) {
+        return Optional.ofNullable(tasks.get(id));
+    }
+
+    /** Busca vários ids de uma vez, na ordem pedida; ids inexistentes ficam de fora. */
+    public List<Task> findAllById(Collection<String> ids) {
+        List<Task> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Task value = tasks.get(id);
+            if (value != null) result.add(value);
         }
         return result;
     }
 
-    public synchronized List<Task> findByTeamId(String teamId) {
+    public List<Task> findAll() {
+        return tasks.values();
+    }
+
+    public int count() {
+        return tasks.size();
+    }
+
+    public int countByProjectId(String projectId) {
+        return tasksByProject.get(projectId).size();
+    }
+
+    /** Percorre sem copiar a tabela (ordem de inserção, fracamente consistente). */
+    public Stream<Task> stream() {
+        return tasks.stream();
+    }
+
+    public void forEach(Consumer<? super Task> action) {
+        tasks.stream().forEach(action);
+    }
+
+    public List<Task> findPage(int offset, int limit) {
+        return tasks.page(offset, limit);
+    }
+
+    /**
+     * Grava um snapshot compacto do repositório e descarta o WAL que ele cobre,
+     * bloqueando as escritas só durante a troca de geração do WAL (no-op se a
+     * persistência estiver desligada).
+     */
+    public void checkpoint() {
+        wal.checkpoint(tasks::withAllLocked, sink -> tasks.forEachLocked(sink));
+    }
+
+    /** Notificado a cada save/delete; recebe de imediato as entidades já existentes. */
+    public void addListener(RepositoryListener<Task> listener) {
+        tasks.addListener(listener);
+    }
+
+    public List<Task> findByProjectId(String projectId) {
+        return tasksByProject.resolve(projectId, tasks::get);
+    }
+
+    public List<Task> findByTeamId(String teamId) {
+        return tasksByTeam.resolve(teamId, tasks::get);
+    }
+
+    /**
+     * Tarefas em aberto com vencimento em [from, to), da mais antiga para a mais nova,
+     * até {@code limit} resultados. null em from/to deixa o lado sem limite.
+     * Custa O(log n + k) — não percorre a tabela.
+     */
+    public List<Task> findOpenDueBetween(LocalDateTime from, LocalDateTime to, int limit) {
         List<Task> result = new ArrayList<>();
-        for (Task t : tasks) {
-            if (teamId.equals(t.getTeamId())) result.add(t);
+        for (String id : openTasksByDue.range(from, to, limit)) {
+            Task t = tasks.get(id);
+            if (t != null) result.add(t);
         }
         return result;
     }
 
-    public synchronized void delete(String id) {
-        tasks.removeIf(t -> t.getId().equals(id));
+    /**
+     * Propaga o cancelamento (ou a reativação) do projeto para todas as tarefas dele de
+     * uma vez, travando as faixas dos ids num único passo. Tarefas salvas depois herdam
+     * o estado. Chamado pelo listener de projetos quando o status de cancelamento muda,
+     * sob o lock do projeto.
+     */
+    private void setProjectCanceled(String projectId, boolean canceled) {
+        if (canceled) canceledProjects.add(projectId); else canceledProjects.remove(projectId);
+        List<ReentrantLock> held = tasks.lockAll(tasksByProject.get(projectId));
+        try {
+            // relê sob os locks: tarefas salvas no meio do caminho já herdaram o estado
+            for (String id : tasksByProject.get(projectId)) {
+                if (canceled) tasksOfCanceledProjects.add(id); else tasksOfCanceledProjects.remove(id);
+            }
+        } finally {
+            tasks.unlockAll(held);
+        }
+    }
+
+    /** Se o projeto da tarefa está cancelado, sem consultar o ProjectRepository. */
+    public boolean isProjectCanceled(String taskId) {
+        return tasksOfCanceledProjects.contains(taskId);
+    }
+
+    /**
+     * Remove os ids de forma atômica (um único lock e um único registro de WAL para o
+     * lote) e devolve quantos existiam. Os removidos são auditados como em saveAll.
+     */
+    public int deleteAll(Collection<String> ids, String userId, String action, String details) {
+        if (ids.isEmpty()) return 0;
+        long position;
+        List<String> removed = new ArrayList<>();
+        List<ReentrantLock> held = tasks.lockAll(ids);
+        try {
+            WriteAheadLog.Batch record = wal.newBatch();
+            for (String id : ids) {
+                if (tasks.get(id) != null) record.delete(id);
+            }
+            position = wal.appendBatch(record);
+            for (String id : ids) {
+                if (applyDelete(id) != null) removed.add(id);
+            }
+        } finally {
+            tasks.unlockAll(held);
+        }
+        wal.awaitDurable(position);
+        LogService.getInstance().logAll(userId, action, removed, details);
+        return removed.size();
+    }
+
+    public void delete(String id) {
+        long position;
+        ReentrantLock lock = tasks.lockFor(id);
+        lock.lock();
+        try {
+            if (tasks.get(id) == null) return;
+            position = wal.appendDelete(id);
+            applyDelete(id);
+        } finally {
+            lock.unlock();
+        }
+        wal.awaitDurable(position);
+    }
+
+    /** Altera memória, índices e listeners. Exige o lock do id. */
+    private void applySave(Task task) {
+        tasks.put(task.getId(), task);
+        tasksByProject.put(task.getId(), task.getProjectId());
+        tasksByTeam.put(task.getId(), task.getTeamId());
+        openTasksByDue.put(task.getId(), task.getDataConclusao() == null ? task.getDataVencimento() : null);
+        // depois do índice por projeto: ou vemos o cancelamento aqui, ou setProjectCanceled vê a tarefa
+        if (canceledProjects.contains(task.getProjectId())) {
+            tasksOfCanceledProjects.add(task.getId());
+        } else {
+            tasksOfCanceledProjects.remove(task.getId());
+        }
+        tasks.fireSave(task);
+    }
+
+    private Task applyDelete(String id) {
+        Task removed = tasks.remove(id);
+        if (removed == null) return null;
+        tasksByProject.remove(id);
+        tasksByTeam.remove(id);
+        openTasksByDue.remove(id);
+        tasksOfCanceledProjects.remove(id);
+        tasks.fireDelete(id, removed);
+        return removed;
     }
 }
@@ -0,0 +1,165 @@
+package com.projectmanager.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Buffer circular do LogService: descarte das entradas antigas, leituras concorrentes
+ * com escritas (nenhuma entrada rasgada entre slots) e a thread escritora assíncrona.
+ */
+class LogServiceTest {
+
+    @Test
+    void keepsOnlyTheMostRecentEntries() {
+        LogService log = new LogService(4);
+        for (int i = 0; i < 10; i++) log.log("u", "ACAO", "e" + i, String.valueOf(i));
+
+        List<LogService.LogEntry> entries = log.getEntries();
+        assertEquals(4, entries.size());
+        for (int i = 0; i < 4; i++) assertEquals(String.valueOf(6 + i), entries.get(i).getDetails());
+        // o índice por entidade esquece o que saiu do buffer
+        assertTrue(log.getEntriesForEntity("e0").isEmpty());
+        assertEquals(1, log.getEntriesForEntity("e9").size());
+    }
+
+    @Test
+    void overflowSinkReceivesDiscardedEntries() {
+        LogService log = new LogService(2);
+        List<String> sunk = new ArrayList<>();
+        log.setOverflowSink(e -> sunk.add(e.getDetails()));
+        for (int i = 0; i < 5; i++) log.log("u", "ACAO", "e", String.valueOf(i));
+
+        assertEquals(List.of("0", "1", "2"), sunk);
+        assertEquals(LogService.OverflowPolicy.SINK, log.getOverflowPolicy());
+    }
+
+    @Test
+    void timeRangeQueriesAfterTheBufferWrapsManyTimes() throws InterruptedException {
+        // 2.000 entradas no buffer, 20.000 gravadas: o índice de tempo dá várias voltas
+        LogService log = new LogService(2_000);
+        for (int i = 0; i < 20_000; i++) {
+            log.log("u", "ACAO", "e", String.valueOf(i));
+            if (i % 500 == 0) Thread.sleep(2);
+        }
+        List<LogService.LogEntry> live = log.getEntries();
+        LocalDateTime from = live.get(300).getTimestamp();
+        LocalDateTime to = live.get(1_500).getTimestamp();
+
+        List<String> expected = new ArrayList<>();
+        for (LogService.LogEntry e : live) {
+            if (!e.getTimestamp().isBefore(from) && !e.getTimestamp().isAfter(to)) expected.add(e.getDetails());
+        }
+        List<String> found = new ArrayList<>();
+        for (LogService.LogEntry e : log.getEntriesBetween(from, to)) found.add(e.getDetails());
+        assertEquals(expected, found);
+        assertEquals(2_000, log.getEntriesBetween(null, null).size());
+    }
+
+    @Test
+    void readersNeverSeeTornEntries() throws InterruptedException {
+        // buffer pequeno para que os leitores copiem slots enquanto são sobrescritos
+        LogService log = new LogService(64);
+        int writers = 4;
+        int perWriter = 20_000;
+        AtomicBoolean done = new AtomicBoolean();
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int id = w;
+            threads.add(new Thread(() -> {
+                await(start);
+                for (int i = 0; i < perWriter; i++) {
+                    String n = id + ":" + i;
+                    log.log("u" + n, "ACAO", "e" + n, n);
+                }
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            threads.add(new Thread(() -> {
+                await(start);
+                while (!done.get()) {
+                    List<LogService.LogEntry> entries = log.getEntries();
+                    if (entries.size() > 64) failures.add("leitura com " + entries.size() + " entradas");
+                    long previous = Long.MIN_VALUE;
+                    for (LogService.LogEntry e : entries) {
+                        // as colunas de um slot precisam vir da mesma gravação
+                        String n = e.getDetails();
+                        if (!("u" + n).equals(e.getUserId()) || !("e" + n).equals(e.getEntity())) {
+                            failures.add("entrada rasgada: " + e);
+                        }
+                        if (e.getTimestampMillis() < previous) failures.add("timestamp fora de ordem: " + e);
+                        previous = e.getTimestampMillis();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (int w = 0; w < writers; w++) threads.get(w).join();
+        done.set(true);
+        for (Thread t : threads) t.join();
+
+        assertTrue(failures.isEmpty(), () -> failures.size() + " falhas, ex.: " + failures.peek());
+        assertEquals(64, log.getEntries().size());
+    }
+
+    @Test
+    void flushMakesAsyncEntriesVisible() throws InterruptedException {
+        LogService log = new LogService(10_000);
+        log.enableAsync();
+        try {
+            assertTrue(log.isAsync());
+            List<Thread> producers = new ArrayList<>();
+            for (int p = 0; p < 4; p++) {
+                int id = p;
+                producers.add(new Thread(() -> {
+                    for (int i = 0; i < 1_000; i++) log.log("u" + id, "ACAO", "e" + id, String.valueOf(i));
+                }));
+            }
+            producers.forEach(Thread::start);
+            for (Thread t : producers) t.join();
+
+            log.flush();
+            assertEquals(4_000, log.getEntries().size());
+            assertEquals(1_000, log.getEntriesByUser("u2").size());
+        } finally {
+            log.shutdown();
+        }
+    }
+
+    @Test
+    void shutdownDrainsPendingEntriesAndTurnsLoggingSynchronous() {
+        LogService log = new LogService(10_000);
+        log.enableAsync();
+        for (int i = 0; i < 5_000; i++) log.log("u", "ACAO", "e", String.valueOf(i));
+        log.logAll("u", "LOTE", List.of("a", "b", "c"), "lote");
+
+        log.shutdown();
+        assertFalse(log.isAsync());
+        assertEquals(5_003, log.getEntries().size());
+
+        // sem a thread escritora a entrada é gravada na própria chamada
+        log.log("u", "DEPOIS", "e", "sincrono");
+        assertEquals(1, log.getEntriesByAction("DEPOIS").size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.projectmanager.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Recuperação do WAL: reaplicação de saves/deletes, lote aplicado por inteiro ou não
+ * aplicado, descarte de cauda rasgada, recusa de registros acima do limite e
+ * checkpoint concorrente com inserções.
+ */
+class WriteAheadLogTest {
+    private static final String NAME = "teste";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysSavesAndDeletesInOrder() {
+        WriteAheadLog wal = open();
+        replay(wal);
+        wal.appendSave("a", "A1");
+        wal.appendSave("b", "B1");
+        wal.appendSave("a", "A2");
+        wal.appendDelete("b");
+        wal.close();
+
+        assertEquals(Map.of("a", "A2"), recover());
+    }
+
+    @Test
+    void batchIsAppliedAsAWhole() {
+        WriteAheadLog wal = open();
+        replay(wal);
+        wal.appendSave("a", "A");
+        WriteAheadLog.Batch batch = wal.newBatch();
+        batch.save("b", "B");
+        batch.save("c", "C");
+        batch.delete("a");
+        wal.appendBatch(batch);
+        wal.close();
+
+        assertEquals(Map.of("b", "B", "c", "C"), recover());
+    }
+
+    @Test
+    void tornBatchIsDiscardedEntirely() throws IOException {
+        WriteAheadLog wal = open();
+        replay(wal);
+        wal.appendSave("a", "A");
+        WriteAheadLog.Batch batch = wal.newBatch();
+        batch.save("b", "B");
+        batch.delete("a");
+        wal.appendBatch(batch);
+        wal.close();
+
+        // queda no meio da escrita do lote: nenhuma das operações dele pode valer
+        truncateTail(3);
+        assertEquals(Map.of("a", "A"), recover());
+    }
+
+    @Test
+    void tornTailIsTruncatedBeforeNewAppends() throws IOException {
+        WriteAheadLog wal = open();
+        replay(wal);
+        wal.appendSave("a", "A");
+        wal.appendSave("b", "B");
+        wal.close();
+        long valid = Files.size(walFile());
+        try (FileChannel ch = FileChannel.open(walFile(), StandardOpenOption.APPEND)) {
+            // cabeçalho de um registro que nunca terminou de ser gravado
+            ch.write(ByteBuffer.wrap(new byte[] {0, 0, 1, 0, 7, 7}));
+        }
+
+        WriteAheadLog reopened = open();
+        assertEquals(Map.of("a", "A", "b", "B"), replay(reopened));
+        assertEquals(valid, Files.size(walFile()));
+
+        // o que for gravado depois da recuperação não pode ficar atrás do lixo
+        reopened.appendSave("c", "C");
+        reopened.close();
+        assertEquals(Map.of("a", "A", "b", "B", "c", "C"), recover());
+    }
+
+    @Test
+    void corruptedRecordEndsTheReplay() throws IOException {
+        WriteAheadLog wal = open();
+        replay(wal);
+        wal.appendSave("a", "A");
+        wal.appendSave("b", "B");
+        wal.close();
+
+        // inverte um byte do último registro: o CRC deixa de bater
+        long size = Files.size(walFile());
+        try (FileChannel ch = FileChannel.open(walFile(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            ch.read(b, size - 1);
+            b.put(0, (byte) ~b.get(0)).rewind();
+            ch.write(b, size - 1);
+        }
+        assertEquals(Map.of("a", "A"), recover());
+    }
+
+    @Test
+    void rejectsRecordsAboveTheLimit() {
+        WriteAheadLog wal = open();
+        replay(wal);
+        byte[] huge = new byte[(64 << 20) + 1];
+
+        assertThrows(IllegalArgumentException.class, () -> wal.appendSave("grande", huge));
+        WriteAheadLog.Batch batch = wal.newBatch();
+        batch.save("grande", huge);
+        assertThrows(IllegalArgumentException.class, () -> wal.appendBatch(batch));
+
+        // a recusa não deixa nada no arquivo: o registro seguinte continua recuperável
+        wal.appendSave("a", "A");
+        wal.close();
+        assertEquals(Map.of("a", "A"), recover());
+    }
+
+    @Test
+    void checkpointDuringAnInsertKeepsTheNewId() throws InterruptedException {
+        WriteAheadLog wal = open();
+        replay(wal);
+        EntityStore<String> store = new EntityStore<>();
+        wal.appendSave("antigo", "antigo");
+        store.put("antigo", "antigo");
+        CountDownLatch appended = new CountDownLatch(1);
+        CountDownLatch checkpointStarted = new CountDownLatch(1);
+
+        // id novo: o registro entra na geração atual e a aplicação em memória atrasa
+        Thread writer = new Thread(() -> {
+            ReentrantLock lock = store.lockFor("novo");
+            lock.lock();
+            try {
+                wal.appendSave("novo", "novo");
+                appended.countDown();
+                await(checkpointStarted);
+                LockSupport.parkNanos(200_000_000L);
+                store.put("novo", "novo");
+            } finally {
+                lock.unlock();
+            }
+        });
+        writer.start();
+        appended.await();
+        Thread checkpoint = new Thread(() -> wal.checkpoint(store::withAllLocked, sink -> store.forEachLocked(sink)));
+        checkpoint.start();
+        checkpointStarted.countDown();
+        writer.join();
+        checkpoint.join();
+        wal.close();
+
+        // a geração que tinha o único registro de "novo" já foi apagada pelo checkpoint
+        assertEquals(Map.of("antigo", "antigo", "novo", "novo"), recover());
+    }
+
+    private WriteAheadLog open() {
+        String previous = System.getProperty(WriteAheadLog.DATA_DIR_PROPERTY);
+        System.setProperty(WriteAheadLog.DATA_DIR_PROPERTY, dir.toString());
+        try {
+            return WriteAheadLog.open(NAME);
+        } finally {
+            if (previous == null) System.clearProperty(WriteAheadLog.DATA_DIR_PROPERTY);
+            else System.setProperty(WriteAheadLog.DATA_DIR_PROPERTY, previous);
+        }
+    }
+
+    /** Estado recuperado por um WAL novo sobre o mesmo diretório (fechado em seguida). */
+    private Map<String, Object> recover() {
+        WriteAheadLog wal = open();
+        Map<String, Object> state = replay(wal);
+        wal.close();
+        return state;
+    }
+
+    private static Map<String, Object> replay(WriteAheadLog wal) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        wal.replay(new WriteAheadLog.Replayer<Object>() {
+            @Override
+            public void onSave(String id, Object entity) {
+                state.put(id, entity);
+            }
+
+            @Override
+            public void onDelete(String id) {
+                state.remove(id);
+            }
+        });
+        return state;
+    }
+
+    private Path walFile() {
+        return dir.resolve(String.format("%s.%06d.wal", NAME, 0));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void truncateTail(int bytes) throws IOException {
+        try (FileChannel ch = FileChannel.open(walFile(), StandardOpenOption.WRITE)) {
+            ch.truncate(ch.size() - bytes);
+        }
+    }
+}
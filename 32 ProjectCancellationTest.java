@@ -0,0 +1,78 @@
+package com.projectmanager.service;
+
+import com.projectmanager.model.Project;
+import com.projectmanager.model.Task;
+import com.projectmanager.model.Team;
+import com.projectmanager.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cascata do cancelamento de projeto: as tarefas do projeto passam a recusar as ações
+ * (sem que cada uma precise ser salva) e voltam a aceitá-las na reativação.
+ * Usa os singletons em memória (sem projectmanager.data.dir).
+ */
+class ProjectCancellationTest {
+    private final ProjectService projects = ProjectService.getInstance();
+    private final TaskService tasks = TaskService.getInstance();
+    private final TaskRepository taskRepo = TaskRepository.getInstance();
+
+    @Test
+    void cancelingBlocksEveryTaskOfTheProjectOnly() {
+        Team team = TeamService.getInstance().createTeam("admin", "Equipe", "teste", "admin");
+        Project canceled = newProject();
+        Project other = newProject();
+        List<Task> blocked = new ArrayList<>();
+        for (int i = 0; i < 3; i++) blocked.add(newTask(canceled, team));
+        Task free = newTask(other, team);
+
+        projects.cancelProject("admin", canceled.getId());
+
+        assertEquals(3, taskRepo.countByProjectId(canceled.getId()));
+        for (Task t : blocked) {
+            assertTrue(taskRepo.isProjectCanceled(t.getId()));
+            BusinessRuleException e = assertThrows(BusinessRuleException.class,
+                    () -> tasks.startTask(t.getId(), "admin"));
+            assertEquals("Projeto cancelado — ação proibida.", e.getMessage());
+            assertThrows(BusinessRuleException.class, () -> tasks.editTask("admin", t.getId(), "novo", null, null));
+        }
+        assertThrows(BusinessRuleException.class,
+                () -> tasks.createTask("admin", "t", "d", canceled.getId(), team.getId(), null));
+
+        assertFalse(taskRepo.isProjectCanceled(free.getId()));
+        tasks.editTask("admin", free.getId(), "editada", null, null);
+    }
+
+    @Test
+    void reactivatingReleasesTheTasks() {
+        Team team = TeamService.getInstance().createTeam("admin", "Equipe", "teste", "admin");
+        Project project = newProject();
+        Task task = newTask(project, team);
+
+        projects.cancelProject("admin", project.getId());
+        assertThrows(BusinessRuleException.class, () -> projects.cancelProject("admin", project.getId()));
+        projects.reactivateProject("admin", project.getId());
+
+        assertFalse(taskRepo.isProjectCanceled(task.getId()));
+        assertEquals("editada", tasks.editTask("admin", task.getId(), "editada", null, null).getTitulo());
+        // tarefas criadas depois da reativação também nascem liberadas
+        assertFalse(taskRepo.isProjectCanceled(newTask(project, team).getId()));
+    }
+
+    private Project newProject() {
+        return projects.createProject("admin", "Projeto", "teste",
+                LocalDate.now(), LocalDate.now().plusMonths(1), "admin");
+    }
+
+    private Task newTask(Project project, Team team) {
+        return tasks.createTask("admin", "Tarefa", "teste", project.getId(), team.getId(), null);
+    }
+}
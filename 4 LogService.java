@@ -1,66 +1,654 @@
 package com.projectmanager.service;
 
+import com.projectmanager.repository.WriteAheadLog;
+
+import java.lang.invoke.VarHandle;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 
 /**
  * Serviço simples de logs/histórico. Armazena entradas de log em memória.
  * Cada entrada contém: quem fez, quando, tipo da ação, entidade alvo e detalhes.
+ *
+ * As entradas ficam num buffer circular pré-alocado de capacidade fixa
+ * (propriedade de sistema projectmanager.log.capacity), então o uso de memória
+ * não cresce com o tempo de execução. Quando o buffer está cheio a entrada mais
+ * antiga é descartada ou, se houver um sink configurado, entregue a ele antes.
+ * Leituras não bloqueiam: copiam o intervalo publicado e descartam o que foi
+ * sobrescrito durante a cópia.
+ *
+ * O buffer é colunar: timestamp em epoch ms num long[], ação como código int de um
+ * dicionário (poucos valores distintos, que se repetem muito) e usuário, entidade e
+ * detalhes como referência no próprio slot — ids de entidade têm cardinalidade sem
+ * limite e num dicionário nunca sairiam da memória. Os objetos LogEntry são montados
+ * na leitura.
+ *
+ * No modo assíncrono (projectmanager.log.async=true ou {@link #enableAsync()})
+ * log() apenas enfileira a entrada numa fila sem locks; uma única thread
+ * escritora drena a fila em lotes. {@link #flush()} espera o que já foi
+ * enfileirado e {@link #shutdown()} drena tudo antes de encerrar.
+ *
+ * Índices invertidos entidade/ação/usuário -> posições no log são mantidos a cada
+ * gravação, e um índice esparso de timestamps (1 amostra a cada TIME_INDEX_EVERY
+ * entradas, num anel do tamanho do buffer) localiza intervalos de tempo por busca
+ * binária — ver {@link #query}.
+ * Os timestamps são mantidos não decrescentes na ordem do log.
+ *
+ * Com projectmanager.data.dir definido, toda entrada também é gravada em segmentos
+ * mapeados em memória (ver AuditSegmentStore). O buffer circular passa a ser só o cache
+ * das entradas recentes: getEntries e getEntriesForEntity enxergam o histórico inteiro,
+ * lendo as entradas antigas direto dos segmentos. Nesse modo os índices por entidade,
+ * ação, usuário e tempo são os dos próprios segmentos, e a inicialização só recarrega o
+ * buffer com as entradas mais recentes.
  */
 public class LogService {
     public static class LogEntry {
         private final String userId;
-        private final LocalDateTime timestamp;
+        private final long timestampMillis;
         private final String action;
         private final String entity;
         private final String details;
 
         public LogEntry(String userId, LocalDateTime timestamp, String action, String entity, String details) {
+            this(userId, toMillis(timestamp), action, entity, details);
+        }
+
+        LogEntry(String userId, long timestampMillis, String action, String entity, String details) {
             this.userId = userId;
-            this.timestamp = timestamp;
+            this.timestampMillis = timestampMillis;
             this.action = action;
             this.entity = entity;
             this.details = details;
         }
 
         public String getUserId() { return userId; }
-        public LocalDateTime getTimestamp() { return timestamp; }
+        public LocalDateTime getTimestamp() { return toDateTime(timestampMillis); }
+        public long getTimestampMillis() { return timestampMillis; }
         public String getAction() { return action; }
         public String getEntity() { return entity; }
         public String getDetails() { return details; }
 
         @Override
         public String toString() {
-            return String.format("[%s] user=%s action=%s entity=%s details=%s",
-                    timestamp.toString(), userId, action, entity, details);
+            return new StringBuilder(96)
+                    .append('[').append(getTimestamp()).append("] user=").append(userId)
+                    .append(" action=").append(action)
+                    .append(" entity=").append(entity)
+                    .append(" details=").append(details)
+                    .toString();
+        }
+    }
+
+    public enum OverflowPolicy { DROP_OLDEST, SINK }
+
+    private static final int DEFAULT_CAPACITY = 100_000;
+    private static final int BATCH_SIZE = 512;
+    private static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+    private static final long WRITER_IDLE_NANOS = 10_000_000L;
+    private static final int TIME_INDEX_EVERY = 256;
+
+    private final int capacity;
+    // buffer colunar: o slot i de cada array forma uma entrada
+    private final long[] timestamps;
+    private final String[] users;
+    private final int[] actions;
+    private final String[] entities;
+    private final String[] details;
+    private final Dictionary actionCodes = new Dictionary();
+    private final Object writeLock = new Object();
+    // claimed avança antes de sobrescrever um slot e published depois de escrevê-lo;
+    // o leitor usa os dois para saber quais slots copiados continuam válidos
+    private volatile long claimed;
+    private volatile long published;
+    private volatile Consumer<LogEntry> overflowSink;
+
+    // índices invertidos (match exato) -> posições (seq) no log; com segmentos ficam vazios
+    // e as consultas usam os índices do AuditSegmentStore
+    private final Map<String, Postings> entityIndex = new ConcurrentHashMap<>();
+    private final Map<String, Postings> actionIndex = new ConcurrentHashMap<>();
+    private final Map<String, Postings> userIndex = new ConcurrentHashMap<>();
+    // índice esparso: timestamp (epoch ms) da entrada seq = b * TIME_INDEX_EVERY, no slot
+    // b % length — um anel que cobre só os blocos ainda no buffer; só alterado sob
+    // writeLock, publicado pela escrita de published
+    private final long[] blockStartMillis;
+    private long lastTimestamp = Long.MIN_VALUE;
+    // histórico em disco; null quando a persistência está desligada
+    private final AuditSegmentStore segments;
+
+    // modo assíncrono: produtores -> pending -> thread escritora
+    private final Queue<LogEntry> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicLong enqueued = new AtomicLong();
+    private volatile long drained; // só alterado sob writeLock
+    private volatile Thread writer;
+
+    private LogService() {
+        this(Integer.getInteger("projectmanager.log.capacity", DEFAULT_CAPACITY), dataDir());
+        if (Boolean.getBoolean("projectmanager.log.async")) enableAsync();
+    }
+
+    LogService(int capacity) {
+        this(capacity, null);
+    }
+
+    LogService(int capacity, Path segmentDir) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacidade do log deve ser positiva");
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.users = new String[capacity];
+        this.actions = new int[capacity];
+        this.entities = new String[capacity];
+        this.details = new String[capacity];
+        this.blockStartMillis = new long[capacity / TIME_INDEX_EVERY + 2];
+        if (segmentDir == null) {
+            this.segments = null;
+            return;
+        }
+        int segmentSize = Integer.getInteger("projectmanager.log.segmentSize", DEFAULT_SEGMENT_SIZE);
+        this.segments = AuditSegmentStore.open(segmentDir, segmentSize);
+        // recoloca no buffer as entradas mais recentes, mantendo a numeração global
+        long total = segments.size();
+        for (long seq = Math.max(0, total - capacity); seq < total; seq++) {
+            LogEntry entry = segments.read(seq);
+            store((int) (seq % capacity), entry);
+            lastTimestamp = entry.getTimestampMillis();
+        }
+        claimed = total;
+        published = total;
+    }
+
+    private static Path dataDir() {
+        String dir = System.getProperty(WriteAheadLog.DATA_DIR_PROPERTY);
+        return dir == null || dir.isEmpty() ? null : Paths.get(dir);
+    }
+
+    private static class Holder {
+        static final LogService INSTANCE = new LogService();
+    }
+
+    public static LogService getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Define o destino das entradas que saem do buffer por excesso.
+     * Com sink nulo a política volta a ser DROP_OLDEST.
+     */
+    public void setOverflowSink(Consumer<LogEntry> sink) {
+        this.overflowSink = sink;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowSink == null ? OverflowPolicy.DROP_OLDEST : OverflowPolicy.SINK;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void log(String userId, String action, String entity, String details) {
+        LogEntry entry = new LogEntry(userId, System.currentTimeMillis(), action, entity, details);
+        Thread w = writer;
+        if (w == null) {
+            synchronized (writeLock) {
+                append(entry);
+            }
+            return;
+        }
+        pending.offer(entry);
+        enqueued.incrementAndGet();
+        if (writer == null) {
+            // shutdown começou entre a leitura de writer e o offer: drena aqui mesmo
+            while (drainBatch(new ArrayList<>())) { }
+        } else {
+            LockSupport.unpark(w);
+        }
+    }
+
+    /**
+     * Registra a mesma ação para várias entidades numa só chamada (operações em lote):
+     * uma entrada por entidade, com o mesmo timestamp, gravadas sob um único lock.
+     */
+    public void logAll(String userId, String action, Collection<String> entities, String details) {
+        if (entities.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        Thread w = writer;
+        if (w == null) {
+            synchronized (writeLock) {
+                for (String entity : entities) append(new LogEntry(userId, now, action, entity, details));
+            }
+            return;
+        }
+        for (String entity : entities) pending.offer(new LogEntry(userId, now, action, entity, details));
+        enqueued.addAndGet(entities.size());
+        if (writer == null) {
+            // shutdown começou no meio: drena aqui mesmo, como em log()
+            while (drainBatch(new ArrayList<>())) { }
+        } else {
+            LockSupport.unpark(w);
+        }
+    }
+
+    /** Liga o modo assíncrono com uma thread escritora dedicada (idempotente). */
+    public synchronized void enableAsync() {
+        if (writer != null) return;
+        Thread t = new Thread(this::runWriter, "log-writer");
+        t.setDaemon(true);
+        writer = t;
+        t.start();
+    }
+
+    public boolean isAsync() {
+        return writer != null;
+    }
+
+    /** Bloqueia até que todas as entradas enfileiradas antes da chamada estejam no buffer. */
+    public void flush() {
+        long target = enqueued.get();
+        while (drained < target) {
+            Thread w = writer;
+            if (w == null) {
+                while (drainBatch(new ArrayList<>())) { }
+                return;
+            }
+            LockSupport.unpark(w);
+            LockSupport.parkNanos(100_000L);
+        }
+    }
+
+    /**
+     * Encerra a thread escritora sem perder entradas: novas chamadas de log voltam
+     * a ser síncronas e o que restar na fila é drenado antes de retornar.
+     */
+    public void shutdown() {
+        Thread w;
+        synchronized (this) {
+            w = writer;
+            writer = null;
+        }
+        if (w != null) {
+            LockSupport.unpark(w);
+            try {
+                w.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        while (drainBatch(new ArrayList<>())) { }
+    }
+
+    private void runWriter() {
+        List<LogEntry> batch = new ArrayList<>(BATCH_SIZE);
+        while (writer == Thread.currentThread()) {
+            if (!drainBatch(batch)) LockSupport.parkNanos(this, WRITER_IDLE_NANOS);
+        }
+        while (drainBatch(batch)) { }
+    }
+
+    private boolean drainBatch(List<LogEntry> batch) {
+        LogEntry e;
+        while (batch.size() < BATCH_SIZE && (e = pending.poll()) != null) batch.add(e);
+        if (batch.isEmpty()) return false;
+        synchronized (writeLock) {
+            for (LogEntry entry : batch) append(entry);
+            drained += batch.size();
+        }
+        batch.clear();
+        return true;
+    }
+
+    /** Grava no buffer circular (e nos segmentos, se houver). Exige writeLock. */
+    private void append(LogEntry entry) {
+        long seq = published;
+        int slot = (int) (seq % capacity);
+        // no modo assíncrono (ou com threads concorrentes) a ordem de chegada pode inverter
+        // timestamps por alguns micros; a busca por tempo depende de ordem não decrescente
+        if (entry.getTimestampMillis() < lastTimestamp) {
+            entry = new LogEntry(entry.getUserId(), lastTimestamp, entry.getAction(), entry.getEntity(), entry.getDetails());
+        }
+        if (segments != null) segments.append(seq, entry);
+        if (seq >= capacity) {
+            Consumer<LogEntry> sink = overflowSink;
+            if (sink != null) sink.accept(load(slot));
+            // com segmentos a posição continua válida: a entrada passa a ser lida do disco
+            if (segments == null) {
+                unindex(entityIndex, entities[slot], seq - capacity);
+                unindex(actionIndex, actionCodes.decode(actions[slot]), seq - capacity);
+                unindex(userIndex, users[slot], seq - capacity);
+            }
+        }
+        claimed = seq + 1;
+        // as colunas não são atômicas: o leitor só confia no slot se claimed não mudou
+        VarHandle.storeStoreFence();
+        store(slot, entry);
+        index(seq, entry);
+        published = seq + 1;
+    }
+
+    /** Grava a entrada nas colunas do slot. Exige writeLock. */
+    private void store(int slot, LogEntry entry) {
+        timestamps[slot] = entry.getTimestampMillis();
+        users[slot] = entry.getUserId();
+        actions[slot] = actionCodes.encode(entry.getAction());
+        entities[slot] = entry.getEntity();
+        details[slot] = entry.getDetails();
+    }
+
+    /** Monta a entrada do slot; quem lê sem o writeLock precisa validar com claimed depois. */
+    private LogEntry load(int slot) {
+        return new LogEntry(users[slot], timestamps[slot],
+                actionCodes.decode(actions[slot]), entities[slot], details[slot]);
+    }
+
+    /** Atualiza os índices com a entrada seq. Exige writeLock. */
+    private void index(long seq, LogEntry entry) {
+        lastTimestamp = entry.getTimestampMillis();
+        // com segmentos, a entrada já foi indexada pelo AuditSegmentStore
+        if (segments != null) return;
+        addPosting(entityIndex, entry.getEntity(), seq);
+        addPosting(actionIndex, entry.getAction(), seq);
+        addPosting(userIndex, entry.getUserId(), seq);
+        if (seq % TIME_INDEX_EVERY == 0) {
+            // o slot sobrescrito é de um bloco que já saiu inteiro do buffer
+            long block = seq / TIME_INDEX_EVERY;
+            blockStartMillis[(int) (block % blockStartMillis.length)] = entry.getTimestampMillis();
         }
     }
 
-    private static LogService instance;
-    private final List<LogEntry> entries = new ArrayList<>();
+    private static void addPosting(Map<String, Postings> index, String key, long seq) {
+        if (key != null) index.computeIfAbsent(key, k -> new Postings()).add(seq);
+    }
 
-    private LogService() {}
+    private static void unindex(Map<String, Postings> index, String key, long seq) {
+        if (key == null) return;
+        index.computeIfPresent(key, (k, postings) -> postings.removeFirst(seq) ? null : postings);
+    }
 
-    public static synchronized LogService getInstance() {
-        if (instance == null) instance = new LogService();
-        return instance;
+    private static long toMillis(LocalDateTime t) {
+        return t.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
-    public synchronized void log(String userId, String action, String entity, String details) {
-        LogEntry entry = new LogEntry(userId, LocalDateTime.now(), action, entity, details);
-        entries.add(entry);
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
     }
 
-    public synchronized List<LogEntry> getEntries() {
-        return new ArrayList<>(entries);
+    public List<LogEntry> getEntries() {
+        long end = published;
+        if (segments != null) {
+            // visão preguiçosa: cada get lê do buffer ou do segmento em disco
+            int size = (int) Math.min(end, Integer.MAX_VALUE);
+            return new AbstractList<LogEntry>() {
+                @Override
+                public LogEntry get(int index) {
+                    if (index < 0 || index >= size) throw new IndexOutOfBoundsException(String.valueOf(index));
+                    return read(index);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        long start = Math.max(0, end - capacity);
+        List<LogEntry> copy = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) copy.add(load((int) (i % capacity)));
+        VarHandle.loadLoadFence();
+        // slots abaixo de claimed - capacity podem ter sido sobrescritos durante a cópia
+        int overwritten = (int) Math.min(Math.max(0, claimed - capacity - start), copy.size());
+        return overwritten == 0 ? copy : new ArrayList<>(copy.subList(overwritten, copy.size()));
     }
 
-    public synchronized List<LogEntry> getEntriesForEntity(String entityId) {
-        List<LogEntry> result = new ArrayList<>();
-        for (LogEntry e : entries) {
-            if (e.getEntity().contains(entityId)) result.add(e);
+    /**
+     * Percorre as entradas em ordem sem copiar o buffer (exportação, relatórios).
+     * Sem segmentos, entradas sobrescritas durante a varredura são puladas.
+     */
+    public void forEachEntry(Consumer<? super LogEntry> action) {
+        long end = published;
+        long start = segments == null ? Math.max(0, claimed - capacity) : 0;
+        for (long seq = start; seq < end; seq++) {
+            LogEntry e = read(seq);
+            if (e != null) action.accept(e);
+        }
+    }
+
+    /** Histórico de uma entidade (id exato), na ordem em que foi registrado. */
+    public List<LogEntry> getEntriesForEntity(String entityId) {
+        if (entityId == null) return new ArrayList<>();
+        return resolve(positions(entityIndex, AuditSegmentStore.ENTITY, entityId, 0, published), Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    public List<LogEntry> getEntriesByAction(String action) {
+        return query(null, null, action, null);
+    }
+
+    public List<LogEntry> getEntriesByUser(String userId) {
+        return query(null, null, null, userId);
+    }
+
+    public List<LogEntry> getEntriesBetween(LocalDateTime from, LocalDateTime to) {
+        return query(from, to, null, null);
+    }
+
+    /**
+     * Entradas que atendem a todos os filtros informados (null = sem filtro), em ordem.
+     * O intervalo [from, to] é fechado. O intervalo de tempo vira um intervalo de posições
+     * pelo índice esparso; ação e usuário são listas de posições ordenadas, intersectadas
+     * a partir da menor. Só as entradas candidatas são lidas.
+     */
+    public List<LogEntry> query(LocalDateTime from, LocalDateTime to, String action, String userId) {
+        long end = published;
+        // [from, to] em ms: from arredonda para cima e to para baixo
+        long fromMs = from == null ? Long.MIN_VALUE : toMillis(from) + (from.getNano() % 1_000_000 == 0 ? 0 : 1);
+        long toMs = to == null ? Long.MAX_VALUE : toMillis(to);
+        long lo = from == null ? 0 : segments != null ? segments.lowerBound(fromMs, end) : lowerBound(fromMs, end);
+        long hi = to == null ? end : segments != null ? segments.upperBound(toMs, end) : upperBound(toMs, end);
+        // sem segmentos, o que saiu do buffer não pode mais ser lido
+        if (segments == null) lo = Math.max(lo, claimed - capacity);
+        if (lo >= hi) return new ArrayList<>();
+
+        List<long[]> lists = new ArrayList<>(2);
+        if (action != null) lists.add(positions(actionIndex, AuditSegmentStore.ACTION, action, lo, hi));
+        if (userId != null) lists.add(positions(userIndex, AuditSegmentStore.USER, userId, lo, hi));
+        if (lists.isEmpty()) {
+            List<LogEntry> result = new ArrayList<>();
+            for (long seq = lo; seq < hi; seq++) {
+                LogEntry e = read(seq);
+                if (e != null && inRange(e, fromMs, toMs)) result.add(e);
+            }
+            return result;
+        }
+        lists.sort((a, b) -> Integer.compare(a.length, b.length));
+        long[] seqs = lists.get(0);
+        for (int i = 1; i < lists.size(); i++) seqs = intersect(seqs, lists.get(i));
+        return resolve(seqs, fromMs, toMs);
+    }
+
+    /** Posições em [from, to) com o valor no campo: dos segmentos, se houver, senão do índice em memória. */
+    private long[] positions(Map<String, Postings> index, int field, String key, long from, long to) {
+        if (segments != null) return segments.positions(field, key, from, to);
+        Postings postings = index.get(key);
+        return postings == null ? new long[0] : postings.range(from, to);
+    }
+
+    /** Primeira posição que pode ter timestamp >= target (início do bloco anterior ao alvo). */
+    private long lowerBound(long target, long end) {
+        long first = firstLiveBlock();
+        // último bloco vivo que começa estritamente antes de target
+        long lo = first;
+        long hi = (end + TIME_INDEX_EVERY - 1) / TIME_INDEX_EVERY - 1;
+        long found = first;
+        while (lo <= hi) {
+            long mid = (lo + hi) >>> 1;
+            if (blockStart(mid) < target) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found * TIME_INDEX_EVERY;
+    }
+
+    /** Posição a partir da qual todo timestamp é > target (início do primeiro bloco depois dele). */
+    private long upperBound(long target, long end) {
+        long lo = firstLiveBlock();
+        long hi = (end + TIME_INDEX_EVERY - 1) / TIME_INDEX_EVERY;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (blockStart(mid) <= target) lo = mid + 1; else hi = mid;
+        }
+        return Math.min(end, lo * TIME_INDEX_EVERY);
+    }
+
+    /** Bloco da entrada mais antiga ainda no buffer; os anteriores já saíram do anel. */
+    private long firstLiveBlock() {
+        return Math.max(0, claimed - capacity) / TIME_INDEX_EVERY;
+    }
+
+    private long blockStart(long block) {
+        return blockStartMillis[(int) (block % blockStartMillis.length)];
+    }
+
+    private static boolean inRange(LogEntry e, long fromMs, long toMs) {
+        long t = e.getTimestampMillis();
+        return t >= fromMs && t <= toMs;
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /** Lê as posições, descartando as já sobrescritas no buffer e as fora do intervalo. */
+    private List<LogEntry> resolve(long[] seqs, long fromMs, long toMs) {
+        List<LogEntry> result = new ArrayList<>(seqs.length);
+        for (long seq : seqs) {
+            LogEntry e = read(seq);
+            if (e != null && inRange(e, fromMs, toMs)) result.add(e);
         }
         return result;
     }
+
+    /** Força os segmentos de auditoria para o disco (no-op sem persistência). */
+    public void checkpoint() {
+        if (segments == null) return;
+        synchronized (writeLock) {
+            segments.force();
+        }
+    }
+
+    /**
+     * Lê uma posição publicada: do buffer se ainda estiver lá, senão do segmento.
+     * Sem segmentos, devolve null para posições já sobrescritas.
+     */
+    private LogEntry read(long seq) {
+        if (seq >= claimed - capacity) {
+            LogEntry e = load((int) (seq % capacity));
+            VarHandle.loadLoadFence();
+            if (seq >= claimed - capacity) return e;
+        }
+        return segments == null ? null : segments.read(seq);
+    }
+
+    /**
+     * Dicionário string <-> código int das ações. Os códigos nunca são liberados, então só
+     * serve para colunas de poucos valores distintos. encode só é chamado sob writeLock; decode não trava (o array é republicado ao crescer).
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+        private volatile String[] values = new String[256];
+        private int size;
+
+        int encode(String value) {
+            if (value == null) return -1;
+            Integer code = codes.get(value);
+            if (code != null) return code;
+            String[] v = values;
+            if (size == v.length) v = Arrays.copyOf(v, size * 2);
+            v[size] = value;
+            values = v;
+            codes.put(value, size);
+            return size++;
+        }
+
+        String decode(int code) {
+            return code < 0 ? null : values[code];
+        }
+    }
+
+    /** Lista crescente de posições de uma entidade, em array circular de long. */
+    private static final class Postings {
+        private long[] seqs = new long[4];
+        private int head;
+        private int size;
+
+        synchronized void add(long seq) {
+            if (size == seqs.length) {
+                long[] grown = new long[seqs.length * 2];
+                for (int i = 0; i < size; i++) grown[i] = seqs[(head + i) % seqs.length];
+                seqs = grown;
+                head = 0;
+            }
+            seqs[(head + size) % seqs.length] = seq;
+            size++;
+        }
+
+        /** Remove a posição mais antiga (despejada do buffer); devolve true se ficou vazia. */
+        synchronized boolean removeFirst(long seq) {
+            if (size > 0 && seqs[head] == seq) {
+                head = (head + 1) % seqs.length;
+                size--;
+            }
+            return size == 0;
+        }
+
+        /** Posições em [from, to), localizadas por busca binária. */
+        synchronized long[] range(long from, long to) {
+            int start = search(from);
+            int n = search(to) - start;
+            long[] copy = new long[n];
+            for (int i = 0; i < n; i++) copy[i] = seqs[(head + start + i) % seqs.length];
+            return copy;
+        }
+
+        /** Índice lógico da primeira posição >= seq. */
+        private int search(long seq) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (seqs[(head + mid) % seqs.length] < seq) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
 }
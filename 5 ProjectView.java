@@ -1,11 +1,14 @@
 package com.projectmanager.view;
 
 import com.projectmanager.model.Project;
-import com.projectmanager.model.ProjectStatus;
 import com.projectmanager.repository.ProjectRepository;
 import com.projectmanager.repository.TeamRepository;
 import com.projectmanager.service.AuthenticationService;
+import com.projectmanager.service.BusinessRuleException;
 import com.projectmanager.service.LogService;
+import com.projectmanager.service.ProjectService;
+import com.projectmanager.service.RepositoryCache;
+import com.projectmanager.service.SearchService;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -13,18 +16,25 @@ import java.util.Optional;
 
 /**
  * View de console para gerenciar projetos.
+ * As regras de negócio ficam no ProjectService; aqui só prompts e permissões da sessão.
  */
 public class ProjectView {
     private final ProjectRepository projectRepo;
     private final TeamRepository teamRepo;
     private final AuthenticationService authService;
     private final LogService logService;
+    private final ProjectService projectService;
+    private final SearchService searchService;
+    private final RepositoryCache cache;
 
     public ProjectView() {
         this.projectRepo = ProjectRepository.getInstance();
         this.teamRepo = TeamRepository.getInstance();
         this.authService = AuthenticationService.getInstance();
         this.logService = LogService.getInstance();
+        this.projectService = ProjectService.getInstance();
+        this.searchService = SearchService.getInstance();
+        this.cache = RepositoryCache.getInstance();
     }
 
     public void mostrarMenu() {
@@ -38,6 +48,7 @@ public class ProjectView {
             System.out.println("4. ✏️  Editar Projeto");
             System.out.println("5. ❌ Cancelar Projeto");
             System.out.println("6. ♻️  Reativar Projeto");
+            System.out.println("7. 🔎 Buscar Projetos");
             System.out.println("0. ⬅️ Voltar");
             
             int op = ConsoleUtils.lerInt("Escolha uma opção: ");
@@ -48,6 +59,7 @@ public class ProjectView {
                 case 4: editarProjeto(); break;
                 case 5: cancelarProjeto(); break;
                 case 6: reativarProjeto(); break;
+                case 7: buscarProjetos(); break;
                 case 0: voltar = true; break;
                 default: ConsoleUtils.mostrarMensagemErro("Opção inválida!");
             }
@@ -75,20 +87,14 @@ public class ProjectView {
 
             // escolha de gerente
             String gerenteId = ConsoleUtils.lerString("ID do gerente responsável: ");
-            if (gerenteId.isEmpty()) {
-                ConsoleUtils.mostrarMensagemErro("Gerente é obrigatório!");
-                return;
-            }
-
-            Project project = new Project(nome, descricao, dataInicio, dataTerminoPrevista, gerenteId);
-            project.setStatus(ProjectStatus.PLANEJADO);
-            projectRepo.save(project);
 
-            logService.log(authService.isLoggedIn() ? authService.getCurrentUser().getId() : "SYSTEM",
-                    "CREATE_PROJECT", project.getId(),
-                    "Projeto criado: " + nome + " gerente=" + gerenteId);
+            Project project = projectService.createProject(
+                    authService.isLoggedIn() ? authService.getCurrentUser().getId() : "SYSTEM",
+                    nome, descricao, dataInicio, dataTerminoPrevista, gerenteId);
 
             ConsoleUtils.mostrarMensagemSucesso("Projeto criado com sucesso! ID: " + project.getId());
+        } catch (BusinessRuleException e) {
+            ConsoleUtils.mostrarMensagemErro(e.getMessage());
         } catch (Exception e) {
             ConsoleUtils.mostrarMensagemErro("Erro ao criar projeto: " + e.getMessage());
         }
@@ -96,19 +102,27 @@ public class ProjectView {
 
     private void listarProjetos() {
         ConsoleUtils.mostrarTitulo("LISTA DE PROJETOS");
-        List<Project> projetos = projectRepo.findAll();
-        if (projetos.isEmpty()) {
+        if (projectRepo.count() == 0) {
             System.out.println("Nenhum projeto cadastrado.");
             return;
         }
-        for (Project p : projetos) {
-            System.out.println(p.toString());
+        projectRepo.forEach(p -> System.out.println(p.toString()));
+    }
+
+    private void buscarProjetos() {
+        String termo = ConsoleUtils.lerString("Buscar por (nome/descrição, aceita prefixos): ");
+        List<Project> resultado = searchService.searchProjects(termo, SearchService.DEFAULT_LIMIT);
+        ConsoleUtils.mostrarTitulo("RESULTADOS DA BUSCA");
+        if (resultado.isEmpty()) {
+            System.out.println("Nenhum projeto encontrado.");
+            return;
         }
+        resultado.forEach(x -> System.out.println(x.toString()));
     }
 
     private void visualizarProjeto() {
         String id = ConsoleUtils.lerString("ID do projeto: ");
-        Optional<Project> opt = projectRepo.findById(id);
+        Optional<Project> opt = cache.findProject(id);
         if (opt.isEmpty()) {
             ConsoleUtils.mostrarMensagemErro("Projeto não encontrado!");
             return;
@@ -138,7 +152,7 @@ public class ProjectView {
 
     private void editarProjeto() {
         String id = ConsoleUtils.lerString("ID do projeto a editar: ");
-        Optional<Project> opt = projectRepo.findById(id);
+        Optional<Project> opt = cache.findProject(id);
         if (opt.isEmpty()) {
             ConsoleUtils.mostrarMensagemErro("Projeto não encontrado!");
             return;
@@ -159,20 +173,21 @@ public class ProjectView {
         String dataInicioStr = ConsoleUtils.lerString("Nova data início (yyyy-MM-dd) ou vazio: ");
         String dataTerminoStr = ConsoleUtils.lerString("Nova data término prevista (yyyy-MM-dd) ou vazio: ");
 
-        if (!novoNome.isEmpty()) p.setNome(novoNome);
-        if (!novaDesc.isEmpty()) p.setDescricao(novaDesc);
-        if (!dataInicioStr.isEmpty()) p.setDataInicio(LocalDate.parse(dataInicioStr));
-        if (!dataTerminoStr.isEmpty()) p.setDataTerminoPrevista(LocalDate.parse(dataTerminoStr));
-
-        projectRepo.save(p);
-        logService.log(authService.getCurrentUser().getId(), "EDIT_PROJECT", p.getId(), "Projeto editado");
-
-        ConsoleUtils.mostrarMensagemSucesso("Projeto atualizado.");
+        try {
+            projectService.editProject(authService.getCurrentUser().getId(), p.getId(),
+                    novoNome.isEmpty() ? null : novoNome,
+                    novaDesc.isEmpty() ? null : novaDesc,
+                    dataInicioStr.isEmpty() ? null : LocalDate.parse(dataInicioStr),
+                    dataTerminoStr.isEmpty() ? null : LocalDate.parse(dataTerminoStr));
+            ConsoleUtils.mostrarMensagemSucesso("Projeto atualizado.");
+        } catch (BusinessRuleException e) {
+            ConsoleUtils.mostrarMensagemErro(e.getMessage());
+        }
     }
 
     private void cancelarProjeto() {
         String id = ConsoleUtils.lerString("ID do projeto a cancelar: ");
-        Optional<Project> opt = projectRepo.findById(id);
+        Optional<Project> opt = cache.findProject(id);
         if (opt.isEmpty()) {
             ConsoleUtils.mostrarMensagemErro("Projeto não encontrado!");
             return;
@@ -188,18 +203,18 @@ public class ProjectView {
             return;
         }
 
-        p.markAsCanceled();
-        projectRepo.save(p);
-
-        // Observação: tarefas serão bloqueadas na TaskView baseada no status do projeto.
-        logService.log(authService.getCurrentUser().getId(), "CANCEL_PROJECT", p.getId(), "Projeto cancelado");
-
-        ConsoleUtils.mostrarMensagemSucesso("Projeto cancelado. Ele permanecerá em histórico até remoção.");
+        try {
+            // o ProjectService bloqueia todas as tarefas do projeto no mesmo passo
+            projectService.cancelProject(authService.getCurrentUser().getId(), p.getId());
+            ConsoleUtils.mostrarMensagemSucesso("Projeto cancelado. Ele permanecerá em histórico até remoção.");
+        } catch (BusinessRuleException e) {
+            ConsoleUtils.mostrarMensagemErro(e.getMessage());
+        }
     }
 
     private void reativarProjeto() {
         String id = ConsoleUtils.lerString("ID do projeto a reativar: ");
-        Optional<Project> opt = projectRepo.findById(id);
+        Optional<Project> opt = cache.findProject(id);
         if (opt.isEmpty()) {
             ConsoleUtils.mostrarMensagemErro("Projeto não encontrado!");
             return;
@@ -215,11 +230,12 @@ public class ProjectView {
             return;
         }
 
-        p.reactivate();
-        projectRepo.save(p);
-
-        logService.log(authService.getCurrentUser().getId(), "REACTIVATE_PROJECT", p.getId(), "Projeto reativado");
-        ConsoleUtils.mostrarMensagemSucesso("Projeto reativado e disponível para alterações.");
+        try {
+            projectService.reactivateProject(authService.getCurrentUser().getId(), p.getId());
+            ConsoleUtils.mostrarMensagemSucesso("Projeto reativado e disponível para alterações.");
+        } catch (BusinessRuleException e) {
+            ConsoleUtils.mostrarMensagemErro(e.getMessage());
+        }
     }
 }
 
@@ -1,20 +1,22 @@
 package com.projectmanager.view;
 
 import com.projectmanager.model.Team;
-import com.projectmanager.model.User;
-import com.projectmanager.model.UserProfile;
 import com.projectmanager.repository.TeamRepository;
 import com.projectmanager.repository.ProjectRepository;
 import com.projectmanager.repository.UserRepository;
 import com.projectmanager.service.AuthenticationService;
+import com.projectmanager.service.BusinessRuleException;
 import com.projectmanager.service.LogService;
+import com.projectmanager.service.RepositoryCache;
+import com.projectmanager.service.SearchService;
+import com.projectmanager.service.TeamService;
 
 import java.util.List;
 import java.util.Optional;
 
 /**
  * View de console para gerenciar equipes.
- * Aplica regras:
+ * Regras (aplicadas pelo TeamService; aqui só prompts e permissões da sessão):
  * - Colaborador só pode estar em 1 equipe.
  * - Gerente/Administrador podem estar em múltiplas equipes.
  * - Criador não pode ser removido como membro (conforme Team implementation).
@@ -26,6 +28,9 @@ public class TeamView {
     private final ProjectRepository projectRepo;
     private final AuthenticationService authService;
     private final LogService logService;
+    private final TeamService teamService;
+    private final SearchService searchService;
+    private final RepositoryCache cache;
 
     public TeamView() {
         this.teamRepo = TeamRepository.getInstance();
@@ -33,6 +38,9 @@ public class TeamView {
         this.projectRepo = ProjectRepository.getInstance();
         this.authService = AuthenticationService.getInstance();
         this.logService = LogService.getInstance();
+        this.teamService = TeamService.getInstance();
+        this.searchService = SearchService.getInstance();
+        this.cache = RepositoryCache.getInstance();
     }
 
     public void mostrarMenu() {
@@ -47,6 +55,7 @@ public class TeamView {
             System.out.println("5. ➕ Adicionar Membro");
             System.out.println("6. ➖ Remover Membro");
             System.out.println("7. 🚫 Desativar/Ativar Equipe (Admin)");
+            System.out.println("8. 🔎 Buscar Equipes");
             System.out.println("0. ⬅️ Voltar");
             int op = ConsoleUtils.lerInt("Escolha uma opção: ");
             switch (op) {
@@ -57,6 +66,7 @@ public class TeamView {
                 case 5: adicionarMembro(); break;
                 case 6: removerMembro(); break;
                 case 7: toggleAtivo(); break;
+                case 8: buscarEquipes(); break;
                 case 0: voltar = true; break;
                 default: ConsoleUtils.mostrarMensagemErro("Opção inválida!");
             }
@@ -74,28 +84,33 @@ public class TeamView {
         String desc = ConsoleUtils.lerString("Descrição: ");
         String criadorId = authService.isLoggedIn() ? authService.getCurrentUser().getId() : ConsoleUtils.lerString("ID do criador: ");
 
-        Team team = new Team(nome, desc, criadorId);
-        teamRepo.save(team);
-
-        logService.log(authService.getCurrentUser().getId(), "CREATE_TEAM", team.getId(), "Equipe criada: " + nome);
+        Team team = teamService.createTeam(authService.getCurrentUser().getId(), nome, desc, criadorId);
         ConsoleUtils.mostrarMensagemSucesso("Equipe criada com ID: " + team.getId());
     }
 
     private void listarEquipes() {
-        List<Team> teams = teamRepo.findAll();
         ConsoleUtils.mostrarTitulo("EQUIPES CADASTRADAS");
-        if (teams.isEmpty()) {
+        if (teamRepo.count() == 0) {
             System.out.println("Nenhuma equipe cadastrada.");
             return;
         }
-        for (Team t : teams) {
-            System.out.println(t.toString());
+        teamRepo.forEach(t -> System.out.println(t.toString()));
+    }
+
+    private void buscarEquipes() {
+        String termo = ConsoleUtils.lerString("Buscar por (nome/descrição, aceita prefixos): ");
+        List<Team> resultado = searchService.searchTeams(termo, SearchService.DEFAULT_LIMIT);
+        ConsoleUtils.mostrarTitulo("RESULTADOS DA BUSCA");
+        if (resultado.isEmpty()) {
+            System.out.println("Nenhuma equipe encontrada.");
+            return;
         }
+        resultado.forEach(x -> System.out.println(x.toString()));
     }
 
     private void visualizarEquipe() {
         String id = ConsoleUtils.lerString("ID da equipe: ");
-        Optional<Team> opt = teamRepo.findById(id);
+        Optional<Team> opt = cache.findTeam(id);
         if (opt.isEmpty()) {
             ConsoleUtils.mostrarMensagemErro("Equipe não encontrada!");
             return;
@@ -109,9 +124,9 @@ public class TeamView {
         System.out.println("Membros: " + t.getMemberIds().size());
         System.out.println("Projetos vinculados: " + t.getProjectCount());
 
-        // Mostrar membros com dados minimamente identificáveis
-        for (String uid : t.getMemberIds()) {
-            userRepo.findById(uid).ifPresent(user -> System.out.println(" - " + user.getNomeCompleto() + " (" + user.getId() + ")"));
+        // Mostrar membros com dados minimamente identificáveis (uma busca em lote, via cache)
+        for (var user : cache.findUsers(t.getMemberIds())) {
+            System.out.println(" - " + user.getNomeCompleto() + " (" + user.getId() + ")");
         }
 
         var logs = logService.getEntriesForEntity(t.getId());
@@ -124,7 +139,7 @@ public class TeamView {
 
     private void editarEquipe() {
         String id = ConsoleUtils.lerString("ID da equipe a editar: ");
-        Optional<Team> opt = teamRepo.findById(id);
+        Optional<Team> opt = cache.findTeam(id);
         if (opt.isEmpty()) {
             ConsoleUtils.mostrarMensagemErro("Equipe não encontrada!");
             return;
@@ -140,51 +155,41 @@ public class TeamView {
 
         String novoNome = ConsoleUtils.lerString("Novo nome (enter para manter): ");
         String novaDesc = ConsoleUtils.lerString("Nova descrição (enter para manter): ");
-        if (!novoNome.isEmpty()) t.setNome(novoNome);
-        if (!novaDesc.isEmpty()) t.setDescricao(novaDesc);
-        teamRepo.save(t);
-        logService.log(authService.getCurrentUser().getId(), "EDIT_TEAM", t.getId(), "Equipe editada");
-        ConsoleUtils.mostrarMensagemSucesso("Equipe atualizada.");
+        try {
+            teamService.editTeam(authService.getCurrentUser().getId(), t.getId(),
+                    novoNome.isEmpty() ? null : novoNome, novaDesc.isEmpty() ? null : novaDesc);
+            ConsoleUtils.mostrarMensagemSucesso("Equipe atualizada.");
+        } catch (BusinessRuleException e) {
+            ConsoleUtils.mostrarMensagemErro(e.getMessage());
+        }
     }
 
     private void adicionarMembro() {
         String teamId = ConsoleUtils.lerString("ID da equipe: ");
-        Optional<Team> optTeam = teamRepo.findById(teamId);
-        if (optTeam.isEmpty()) { ConsoleUtils.mostrarMensagemErro("Equipe não encontrada!"); return; }
-        Team team = optTeam.get();
+        if (cache.findTeam(teamId).isEmpty()) { ConsoleUtils.mostrarMensagemErro("Equipe não encontrada!"); return; }
 
         String userId = ConsoleUtils.lerString("ID do usuário a adicionar: ");
-        Optional<User> optUser = userRepo.findById(userId);
-        if (optUser.isEmpty()) { ConsoleUtils.mostrarMensagemErro("Usuário não encontrado!"); return; }
-        User user = optUser.get();
-
-        // regra: colaborador só pode estar em 1 equipe; gerente/admin podem em várias
-        UserProfile perfil = user.getPerfil();
-        if (perfil == UserProfile.COLABORADOR) {
-            var teamsOfUser = teamRepo.findByMemberId(userId);
-            if (!teamsOfUser.isEmpty()) {
-                ConsoleUtils.mostrarMensagemErro("Usuário é Colaborador e já pertence a uma equipe. Remova-o da outra equipe primeiro.");
-                return;
-            }
-        }
-        if (team.addMember(userId)) {
-            teamRepo.save(team);
-            logService.log(authService.getCurrentUser().getId(), "ADD_TEAM_MEMBER", team.getId(), "adicionado membro=" + userId);
+        try {
+            // regra: colaborador só pode estar em 1 equipe; gerente/admin podem em várias
+            teamService.addMember(authService.getCurrentUser().getId(), teamId, userId);
             ConsoleUtils.mostrarMensagemSucesso("Membro adicionado.");
-        } else {
-            ConsoleUtils.mostrarMensagemErro("Usuário já é membro desta equipe.");
+        } catch (BusinessRuleException e) {
+            ConsoleUtils.mostrarMensagemErro(e.getMessage());
         }
     }
 
     private void removerMembro() {
         String teamId = ConsoleUtils.lerString("ID da equipe: ");
-        Optional<Team> optTeam = teamRepo.findById(teamId);
+        Optional<Team> optTeam = cache.findTeam(teamId);
         if (optTeam.isEmpty()) { ConsoleUtils.mostrarMensagemErro("Equipe não encontrada!"); return; }
         Team team = optTeam.get();
 
         String userId = ConsoleUtils.lerString("ID do usuário a remover: ");
-        if (userId.equals(team.getCriadorId())) {
-            ConsoleUtils.mostrarMensagemErro("Não é permitido remover o criador da equipe.");
+        try {
+            // o criador não sai da equipe, independente de quem pede
+            teamService.checkRemovable(team.getId(), userId);
+        } catch (BusinessRuleException e) {
+            ConsoleUtils.mostrarMensagemErro(e.getMessage());
             return;
         }
 
@@ -198,12 +203,11 @@ public class TeamView {
             return;
         }
 
-        if (team.removeMember(userId)) {
-            teamRepo.save(team);
-            logService.log(authService.getCurrentUser().getId(), "REMOVE_TEAM_MEMBER", team.getId(), "removido membro=" + userId);
+        try {
+            teamService.removeMember(authService.getCurrentUser().getId(), team.getId(), userId);
             ConsoleUtils.mostrarMensagemSucesso("Membro removido.");
-        } else {
-            ConsoleUtils.mostrarMensagemErro("Usuário não é membro desta equipe.");
+        } catch (BusinessRuleException e) {
+            ConsoleUtils.mostrarMensagemErro(e.getMessage());
         }
     }
 
@@ -213,12 +217,11 @@ public class TeamView {
             return;
         }
         String teamId = ConsoleUtils.lerString("ID da equipe: ");
-        Optional<Team> opt = teamRepo.findById(teamId);
-        if (opt.isEmpty()) { ConsoleUtils.mostrarMensagemErro("Equipe não encontrada!"); return; }
-        Team t = opt.get();
-        t.setAtivo(!t.isAtivo());
-        teamRepo.save(t);
-        logService.log(authService.getCurrentUser().getId(), "TOGGLE_TEAM_ACTIVE", t.getId(), "ativo=" + t.isAtivo());
-        ConsoleUtils.mostrarMensagemSucesso("Equipe agora está " + (t.isAtivo() ? "ativa" : "inativa"));
+        try {
+            Team t = teamService.toggleActive(authService.getCurrentUser().getId(), teamId);
+            ConsoleUtils.mostrarMensagemSucesso("Equipe agora está " + (t.isAtivo() ? "ativa" : "inativa"));
+        } catch (BusinessRuleException e) {
+            ConsoleUtils.mostrarMensagemErro(e.getMessage());
+        }
     }
 }
@@ -9,8 +9,14 @@ import com.projectmanager.repository.TaskRepository;
 import com.projectmanager.repository.TeamRepository;
 import com.projectmanager.repository.UserRepository;
 import com.projectmanager.service.AuthenticationService;
+import com.projectmanager.service.BusinessRuleException;
+import com.projectmanager.service.DueDateService;
 import com.projectmanager.service.LogService;
+import com.projectmanager.service.RepositoryCache;
+import com.projectmanager.service.SearchService;
+import com.projectmanager.service.TaskService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +26,7 @@ import java.util.Optional;
  * - valida campos obrigatórios antes de permitir avanço
  * - bloqueia ação se projeto estiver cancelado
  * - grava histórico de ações via LogService
+ * As regras acima são aplicadas pelo TaskService; aqui só prompts e permissões da sessão.
  */
 public class TaskView {
     private final TaskRepository taskRepo;
@@ -28,6 +35,10 @@ public class TaskView {
     private final UserRepository userRepo;
     private final AuthenticationService authService;
     private final LogService logService;
+    private final TaskService taskService;
+    private final SearchService searchService;
+    private final DueDateService dueDateService;
+    private final RepositoryCache cache;
 
     public TaskView() {
         this.taskRepo = TaskRepository.getInstance();
@@ -36,6 +47,10 @@ public class TaskView {
         this.userRepo = UserRepository.getInstance();
         this.authService = AuthenticationService.getInstance();
         this.logService = LogService.getInstance();
+        this.taskService = TaskService.getInstance();
+        this.searchService = SearchService.getInstance();
+        this.dueDateService = DueDateService.getInstance();
+        this.cache = RepositoryCache.getInstance();
     }
 
     public void mostrarMenu() {
@@ -49,6 +64,8 @@ public class TaskView {
             System.out.println("4. ▶️  Iniciar Tarefa");
             System.out.println("5. ✅ Concluir Tarefa");
             System.out.println("6. ✏️  Editar Tarefa");
+            System.out.println("7. 🔎 Buscar Tarefas");
+            System.out.println("8. ⏰ Tarefas Atrasadas e a Vencer");
             System.out.println("0. ⬅️ Voltar");
             int op = ConsoleUtils.lerInt("Escolha uma opção: ");
             switch (op) {
@@ -58,6 +75,8 @@ public class TaskView {
                 case 4: iniciarTarefa(); break;
                 case 5: concluirTarefa(); break;
                 case 6: editarTarefa(); break;
+                case 7: buscarTarefas(); break;
+                case 8: listarVencimentos(); break;
                 case 0: voltar = true; break;
                 default: ConsoleUtils.mostrarMensagemErro("Opção inválida!");
             }
@@ -73,47 +92,58 @@ public class TaskView {
         String titulo = ConsoleUtils.lerString("Título: ");
         String descricao = ConsoleUtils.lerString("Descrição: ");
         String projectId = ConsoleUtils.lerString("ID do projeto: ");
-        Optional<Project> optP = projectRepo.findById(projectId);
+        Optional<Project> optP = cache.findProject(projectId);
         if (optP.isEmpty()) { ConsoleUtils.mostrarMensagemErro("Projeto não encontrado!"); return; }
-        Project project = optP.get();
-        if (project.isCanceled()) { ConsoleUtils.mostrarMensagemErro("Projeto cancelado — não é permitido criar tarefas."); return; }
+        if (optP.get().isCanceled()) { ConsoleUtils.mostrarMensagemErro("Projeto cancelado — não é permitido criar tarefas."); return; }
 
         String teamId = ConsoleUtils.lerString("ID da equipe responsável: ");
-        if (teamRepo.findById(teamId).isEmpty()) { ConsoleUtils.mostrarMensagemErro("Equipe não encontrada!"); return; }
-
-        Task task = new Task(titulo, descricao, projectId, teamId);
-        task.validateRequiredFields();
-        if (!task.isCamposObrigatoriosPreenchidos()) {
-            ConsoleUtils.mostrarMensagemErro("Campos obrigatórios não preenchidos — tarefa criada em PENDENTE.");
-            // permitimos criar, mas não avançar até preencher
+        try {
+            Task task = taskService.createTask(authService.getCurrentUser().getId(), titulo, descricao, projectId, teamId, null);
+            if (!task.isCamposObrigatoriosPreenchidos()) {
+                ConsoleUtils.mostrarMensagemErro("Campos obrigatórios não preenchidos — tarefa criada em PENDENTE.");
+                // permitimos criar, mas não avançar até preencher
+            }
+            ConsoleUtils.mostrarMensagemSucesso("Tarefa criada com ID: " + task.getId());
+        } catch (BusinessRuleException e) {
+            ConsoleUtils.mostrarMensagemErro(e.getMessage());
         }
-        taskRepo.save(task);
-
-        // vincular tarefa ao projeto
-        project.addTask(task.getId());
-        projectRepo.save(project);
-
-        logService.log(authService.getCurrentUser().getId(), "CREATE_TASK", task.getId(), 
-                "Tarefa criada em projeto=" + projectId + " equipe=" + teamId);
-
-        ConsoleUtils.mostrarMensagemSucesso("Tarefa criada com ID: " + task.getId());
     }
 
     private void listarTarefas() {
         ConsoleUtils.mostrarTitulo("TAREFAS CADASTRADAS");
-        List<Task> tasks = taskRepo.findAll();
-        if (tasks.isEmpty()) {
+        if (taskRepo.count() == 0) {
             System.out.println("Nenhuma tarefa cadastrada.");
             return;
         }
-        for (Task t : tasks) {
-            System.out.println(t.toString());
+        taskRepo.forEach(t -> System.out.println(t.toString()));
+    }
+
+    private void buscarTarefas() {
+        String termo = ConsoleUtils.lerString("Buscar por (título/descrição, aceita prefixos): ");
+        List<Task> resultado = searchService.searchTasks(termo, SearchService.DEFAULT_LIMIT);
+        ConsoleUtils.mostrarTitulo("RESULTADOS DA BUSCA");
+        if (resultado.isEmpty()) {
+            System.out.println("Nenhuma tarefa encontrada.");
+            return;
         }
+        resultado.forEach(x -> System.out.println(x.toString()));
+    }
+
+    private void listarVencimentos() {
+        ConsoleUtils.mostrarTitulo("TAREFAS ATRASADAS");
+        List<Task> atrasadas = dueDateService.getOverdueTasks(DueDateService.DEFAULT_LIMIT);
+        if (atrasadas.isEmpty()) System.out.println("Nenhuma tarefa atrasada.");
+        atrasadas.forEach(t -> System.out.println(t.getDataVencimento() + "  " + t));
+
+        ConsoleUtils.mostrarTitulo("VENCEM NOS PRÓXIMOS 7 DIAS");
+        List<Task> aVencer = dueDateService.getDueSoon(Duration.ofDays(7), DueDateService.DEFAULT_LIMIT);
+        if (aVencer.isEmpty()) System.out.println("Nenhuma tarefa vencendo.");
+        aVencer.forEach(t -> System.out.println(t.getDataVencimento() + "  " + t));
     }
 
     private void verTarefa() {
         String id = ConsoleUtils.lerString("ID da tarefa: ");
-        Optional<Task> opt = taskRepo.findById(id);
+        Optional<Task> opt = cache.findTask(id);
         if (opt.isEmpty()) { ConsoleUtils.mostrarMensagemErro("Tarefa não encontrada!"); return; }
         Task t = opt.get();
         ConsoleUtils.mostrarTitulo("TAREFA: " + t.getTitulo());
@@ -137,19 +167,15 @@ public class TaskView {
 
     private void iniciarTarefa() {
         String id = ConsoleUtils.lerString("ID da tarefa para iniciar: ");
-        Optional<Task> opt = taskRepo.findById(id);
+        Optional<Task> opt = cache.findTask(id);
         if (opt.isEmpty()) { ConsoleUtils.mostrarMensagemErro("Tarefa não encontrada!"); return; }
         Task t = opt.get();
 
-        // Verificar projeto associado
-        Optional<Project> optP = projectRepo.findById(t.getProjectId());
-        if (optP.isEmpty()) { ConsoleUtils.mostrarMensagemErro("Projeto não encontrado!"); return; }
-        Project project = optP.get();
-        if (project.isCanceled()) { ConsoleUtils.mostrarMensagemErro("Projeto cancelado — ação proibida."); return; }
-
-        t.validateRequiredFields();
-        if (!t.isCamposObrigatoriosPreenchidos()) {
-            ConsoleUtils.mostrarMensagemErro("Campos obrigatórios não preenchidos — não é possível iniciar.");
+        // projeto cancelado e campos obrigatórios são recusados antes de pedir o responsável
+        try {
+            taskService.checkCanStart(t.getId());
+        } catch (BusinessRuleException e) {
+            ConsoleUtils.mostrarMensagemErro(e.getMessage());
             return;
         }
 
@@ -159,54 +185,37 @@ public class TaskView {
             return;
         }
 
-        boolean ok = t.markAsStarted(userId);
-        if (ok) {
-            taskRepo.save(t);
-            logService.log(userId, "START_TASK", t.getId(), "Iniciou tarefa");
+        try {
+            taskService.startTask(t.getId(), userId);
             ConsoleUtils.mostrarMensagemSucesso("Tarefa iniciada.");
-        } else {
-            ConsoleUtils.mostrarMensagemErro("Não foi possível iniciar a tarefa (status atual: " + t.getStatus().name() + ")");
+        } catch (BusinessRuleException e) {
+            ConsoleUtils.mostrarMensagemErro(e.getMessage());
         }
     }
 
     private void concluirTarefa() {
         String id = ConsoleUtils.lerString("ID da tarefa para concluir: ");
-        Optional<Task> opt = taskRepo.findById(id);
+        Optional<Task> opt = cache.findTask(id);
         if (opt.isEmpty()) { ConsoleUtils.mostrarMensagemErro("Tarefa não encontrada!"); return; }
         Task t = opt.get();
 
-        // Verificar projeto associado
-        Optional<Project> optP = projectRepo.findById(t.getProjectId());
-        if (optP.isEmpty()) { ConsoleUtils.mostrarMensagemErro("Projeto não encontrado!"); return; }
-        Project project = optP.get();
-        if (project.isCanceled()) { ConsoleUtils.mostrarMensagemErro("Projeto cancelado — ação proibida."); return; }
-
         String userId = ConsoleUtils.lerString("Seu ID (responsável): ");
-        if (!userId.equals(t.getResponsavelId())) {
-            ConsoleUtils.mostrarMensagemErro("Apenas o responsável pela tarefa pode concluí-la!");
-            return;
-        }
-
-        boolean ok = t.markAsCompleted(userId);
-        if (ok) {
-            taskRepo.save(t);
-            logService.log(userId, "COMPLETE_TASK", t.getId(), "Concluiu tarefa");
+        try {
+            // só o responsável conclui; projeto cancelado bloqueia
+            taskService.completeTask(t.getId(), userId);
             ConsoleUtils.mostrarMensagemSucesso("Tarefa concluída.");
-        } else {
-            ConsoleUtils.mostrarMensagemErro("Não foi possível concluir a tarefa (status atual: " + t.getStatus().name() + ")");
+        } catch (BusinessRuleException e) {
+            ConsoleUtils.mostrarMensagemErro(e.getMessage());
         }
     }
 
     private void editarTarefa() {
         String id = ConsoleUtils.lerString("ID da tarefa para editar: ");
-        Optional<Task> opt = taskRepo.findById(id);
+        Optional<Task> opt = cache.findTask(id);
         if (opt.isEmpty()) { ConsoleUtils.mostrarMensagemErro("Tarefa não encontrada!"); return; }
         Task t = opt.get();
 
-        Optional<Project> optP = projectRepo.findById(t.getProjectId());
-        if (optP.isEmpty()) { ConsoleUtils.mostrarMensagemErro("Projeto não encontrado!"); return; }
-        Project project = optP.get();
-        if (project.isCanceled()) { ConsoleUtils.mostrarMensagemErro("Projeto cancelado — não é possível editar."); return; }
+        if (taskRepo.isProjectCanceled(t.getId())) { ConsoleUtils.mostrarMensagemErro("Projeto cancelado — não é possível editar."); return; }
 
         // Permite edição se for responsável ou tiver permissão
         boolean isResponsavel = authService.isLoggedIn() && authService.getCurrentUser().getId().equals(t.getResponsavelId());
@@ -219,13 +228,14 @@ public class TaskView {
         String novaDesc = ConsoleUtils.lerString("Nova descrição (enter para manter): ");
         String novaVenc = ConsoleUtils.lerString("Nova data vencimento (yyyy-MM-ddTHH:mm) ou vazio: ");
 
-        if (!novoTitulo.isEmpty()) t.setTitulo(novoTitulo);
-        if (!novaDesc.isEmpty()) t.setDescricao(novaDesc);
-        if (!novaVenc.isEmpty()) t.setDataVencimento(LocalDateTime.parse(novaVenc));
-
-        t.validateRequiredFields();
-        taskRepo.save(t);
-        logService.log(authService.getCurrentUser().getId(), "EDIT_TASK", t.getId(), "Tarefa editada");
-        ConsoleUtils.mostrarMensagemSucesso("Tarefa atualizada.");
+        try {
+            taskService.editTask(authService.getCurrentUser().getId(), t.getId(),
+                    novoTitulo.isEmpty() ? null : novoTitulo,
+                    novaDesc.isEmpty() ? null : novaDesc,
+                    novaVenc.isEmpty() ? null : LocalDateTime.parse(novaVenc));
+            ConsoleUtils.mostrarMensagemSucesso("Tarefa atualizada.");
+        } catch (BusinessRuleException e) {
+            ConsoleUtils.mostrarMensagemErro(e.getMessage());
+        }
     }
 }
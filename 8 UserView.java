@@ -6,6 +6,7 @@ import com.projectmanager.repository.UserRepository;
 import com.projectmanager.repository.TeamRepository;
 import com.projectmanager.service.AuthenticationService;
 import com.projectmanager.service.LogService;
+import com.projectmanager.service.RepositoryCache;
 
 public class UserView {
     private UserRepository userRepository;
@@ -258,6 +259,8 @@ public class UserView {
         User user = authService.getCurrentUser();
         user.setSenha(novaSenha);
         userRepository.save(user);
+        // UserRepository não notifica listeners
+        RepositoryCache.getInstance().invalidateUser(user.getId());
 
         logService.log(user.getId(), "CHANGE_PASSWORD", "USER", "Senha alterada");
 
@@ -1,9 +1,18 @@
 package com.projectmanager.view;
 
+import com.projectmanager.model.ProjectStatus;
+import com.projectmanager.model.TaskStatus;
 import com.projectmanager.service.AuthenticationService;
+import com.projectmanager.service.DueDateService;
+import com.projectmanager.service.LogService;
+import com.projectmanager.service.ReadThroughCache;
+import com.projectmanager.service.RepositoryCache;
+import com.projectmanager.service.SnapshotService;
+import com.projectmanager.service.StatisticsService;
 
 public class MainView {
     private AuthenticationService authService;
+    private StatisticsService statsService;
     private UserView userView;
     private ProjectView projectView;
     private TeamView teamView;
@@ -11,10 +20,13 @@ public class MainView {
 
     public MainView() {
         this.authService = AuthenticationService.getInstance();
+        this.statsService = StatisticsService.getInstance();
         this.userView = new UserView();
         this.projectView = new ProjectView();
         this.teamView = new TeamView();
         this.taskView = new TaskView();
+        SnapshotService.getInstance().start();
+        DueDateService.getInstance().start();
     }
 
     public void iniciar() {
@@ -133,16 +145,34 @@ public class MainView {
 
     private void mostrarEstatisticas() {
         ConsoleUtils.mostrarTitulo("ESTATÍSTICAS DO SISTEMA");
-        // Estatísticas simples (valores em memória)
+        // Contadores mantidos incrementalmente pelo StatisticsService
         int usuarios = com.projectmanager.repository.UserRepository.getInstance().findAll().size();
-        int projetos = com.projectmanager.repository.ProjectRepository.getInstance().findAll().size();
-        int equipes = com.projectmanager.repository.TeamRepository.getInstance().findAll().size();
-        int tarefas = com.projectmanager.repository.TaskRepository.getInstance().findAll().size();
 
         System.out.println("Usuários cadastrados: " + usuarios);
-        System.out.println("Projetos cadastrados: " + projetos);
-        System.out.println("Equipes cadastradas: " + equipes);
-        System.out.println("Tarefas cadastradas: " + tarefas);
+        System.out.println("Projetos cadastrados: " + statsService.getProjectCount());
+        for (ProjectStatus s : ProjectStatus.values()) {
+            System.out.println("  - " + s.getDisplayName() + ": " + statsService.getProjectCount(s));
+        }
+        System.out.println("Equipes cadastradas: " + statsService.getTeamCount()
+                + " (ativas: " + statsService.getActiveTeamCount()
+                + ", inativas: " + statsService.getInactiveTeamCount() + ")");
+        System.out.println("Tarefas cadastradas: " + statsService.getTaskCount());
+        for (TaskStatus s : TaskStatus.values()) {
+            System.out.println("  - " + s.getDisplayName() + ": " + statsService.getTaskCount(s));
+        }
+        System.out.println("Tarefas atrasadas: " + statsService.getOverdueTaskCount());
+        System.out.println("Caches de leitura:");
+        for (ReadThroughCache<?> c : RepositoryCache.getInstance().getCaches()) {
+            System.out.println("  - " + c);
+        }
+        String falhaSnapshot = SnapshotService.getInstance().getLastFailure();
+        if (falhaSnapshot != null) {
+            System.out.println("Última falha de snapshot: " + falhaSnapshot);
+        }
+        String falhaVencimentos = DueDateService.getInstance().getLastFailure();
+        if (falhaVencimentos != null) {
+            System.out.println("Última falha ao verificar vencimentos: " + falhaVencimentos);
+        }
     }
 
     private void mostrarSobre() {
@@ -162,7 +192,7 @@ public class MainView {
         System.out.println("  • Gerente: Gerencia projetos e equipes");
         System.out.println("  • Colaborador: Executa tarefas atribuídas");
         System.out.println();
-        System.out.println("🏗️  Arquitetura MVC com persistência em arquivos (simulada em memória)");
+        System.out.println("🏗️  Arquitetura MVC com persistência em arquivos (WAL em projectmanager.data.dir; sem ele, apenas em memória)");
     }
 
     private void encerrarSistema() {
@@ -171,6 +201,11 @@ public class MainView {
         if (authService.isLoggedIn()) {
             authService.logout();
         }
+
+        DueDateService.getInstance().shutdown();
+        // garante que nenhuma entrada do log assíncrono se perca na saída
+        LogService.getInstance().shutdown();
+        SnapshotService.getInstance().shutdown();
         
         System.out.println("Obrigado por usar o Sistema de Gerenciamento!");
         System.out.println("Até a próxima! 🚀");